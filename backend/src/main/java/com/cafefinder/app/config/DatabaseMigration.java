@@ -1,22 +1,117 @@
 package com.cafefinder.app.config;
 
 import com.cafefinder.app.model.Cafe;
+import com.cafefinder.app.model.Review;
+import com.cafefinder.app.model.ReviewSummary;
 import com.cafefinder.app.repo.CafeRepo;
+import com.cafefinder.app.service.CafeService;
+import com.cafefinder.app.service.PopularityLeaderboard;
+import com.cafefinder.app.service.RatingDelta;
+import com.cafefinder.app.service.ReviewSummaryService;
+import com.cafefinder.app.util.OpeningHours;
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.BulkOperations;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
 @Configuration
 public class DatabaseMigration {
+    private static final Logger log = LoggerFactory.getLogger(DatabaseMigration.class);
     
     @Autowired
     private MongoTemplate mongoTemplate;
     
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    CommandLineRunner migrateCafeVersions() {
+        return args -> {
+            // @Version treats a missing version as a new document, so existing cafes
+            // need one before anything saves them (runs ahead of the seed data runner)
+            Query query = new Query(Criteria.where("version").exists(false));
+            long updated = mongoTemplate.updateMulti(query, new Update().set("version", 0L), Cafe.class)
+                .getModifiedCount();
+            if (updated > 0) {
+                log.info("Initialized version on {} cafes", updated);
+            }
+            
+            // Owner edits are checked against their own counter
+            Query noEditVersion = new Query(Criteria.where("editVersion").exists(false));
+            updated = mongoTemplate.updateMulti(noEditVersion, new Update().set("editVersion", 0L), Cafe.class)
+                .getModifiedCount();
+            if (updated > 0) {
+                log.info("Initialized editVersion on {} cafes", updated);
+            }
+        };
+    }
+    
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    CommandLineRunner migrateCafeDedupeKeys() {
+        return args -> {
+            // Must run before the unique dedupeKey index is created. Existing duplicates
+            // keep a key suffixed with their id so the index can still be built.
+            Query missing = new Query(Criteria.where("dedupeKey").exists(false));
+            missing.fields().include("name", "latitude", "longitude");
+            List<Cafe> cafes = mongoTemplate.find(missing, Cafe.class);
+            if (cafes.isEmpty()) return;
+
+            Query existing = new Query(Criteria.where("dedupeKey").exists(true));
+            existing.fields().include("dedupeKey");
+            Set<String> taken = new HashSet<>();
+            mongoTemplate.find(existing, Cafe.class).forEach(cafe -> taken.add(cafe.getDedupeKey()));
+
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Cafe.class);
+            int duplicates = 0;
+            for (Cafe cafe : cafes) {
+                String key = CafeService.dedupeKey(cafe.getName(), cafe.getLatitude(), cafe.getLongitude());
+                if (!taken.add(key)) {
+                    key = key + "#" + cafe.getId();
+                    duplicates++;
+                }
+                bulk.updateOne(new Query(Criteria.where("id").is(cafe.getId())), new Update().set("dedupeKey", key));
+            }
+            bulk.execute();
+            log.info("Backfilled dedupe keys on {} cafes ({} possible duplicates)", cafes.size(), duplicates);
+        };
+    }
+    
+    @Bean
+    CommandLineRunner migrateCafeOpenIntervals() {
+        return args -> {
+            // Compile free-text hours for the open-now filter on cafes saved before it existed
+            Query query = new Query(Criteria.where("openIntervals").exists(false).and("hours").exists(true));
+            query.fields().include("hours");
+            List<Cafe> cafes = mongoTemplate.find(query, Cafe.class);
+            if (cafes.isEmpty()) return;
+
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Cafe.class);
+            for (Cafe cafe : cafes) {
+                bulk.updateOne(new Query(Criteria.where("id").is(cafe.getId())),
+                    new Update().set("openIntervals", OpeningHours.compile(cafe.getHours())));
+            }
+            bulk.execute();
+            log.info("Compiled opening hours for {} cafes", cafes.size());
+        };
+    }
+    
     @Bean
     CommandLineRunner migrateCafeOwnership() {
         return args -> {
@@ -25,7 +120,7 @@ public class DatabaseMigration {
             long cafesNeedingMigration = mongoTemplate.count(query, Cafe.class);
             
             if (cafesNeedingMigration > 0) {
-                System.out.println("Migrating " + cafesNeedingMigration + " cafes with new ownership fields...");
+                log.info("Migrating {} cafes with new ownership fields...", cafesNeedingMigration);
                 
                 Update update = new Update()
                     .set("isClaimed", false)
@@ -33,10 +128,83 @@ public class DatabaseMigration {
                     .set("isVerified", false);
                 
                 mongoTemplate.updateMulti(query, update, Cafe.class);
-                System.out.println("Migration completed successfully!");
+                log.info("Migration completed successfully!");
             } else {
-                System.out.println("No migration needed - cafes already have ownership fields.");
+                log.info("No migration needed - cafes already have ownership fields.");
             }
         };
     }
+    
+    @Bean
+    CommandLineRunner migrateCafeRatingTotals(CafeService cafeService) {
+        return args -> {
+            // Cafes created before incremental ratings have no running totals yet
+            Query query = new Query(Criteria.where("ratingSum").exists(false));
+            query.fields().include("id");
+            List<Cafe> cafes = mongoTemplate.find(query, Cafe.class);
+            
+            if (!cafes.isEmpty()) {
+                log.info("Backfilling rating totals for {} cafes from approved reviews...", cafes.size());
+                for (Cafe cafe : cafes) {
+                    cafeService.updateCafeRatings(cafe.getId());
+                }
+                log.info("Rating totals backfill completed");
+            }
+        };
+    }
+    
+    @Bean
+    CommandLineRunner migrateReviewSummaries(ReviewSummaryService reviewSummaries) {
+        return args -> {
+            // Early summaries were saved under a String _id that reads and $inc upserts never matched;
+            // drop them and rebuild those cafes, overwriting the delta-only copy the upserts started
+            MongoCollection<Document> summaries = mongoTemplate.getCollection(mongoTemplate.getCollectionName(ReviewSummary.class));
+            Document stringKeyed = new Document("_id", new Document("$type", "string").append("$regex", "^[0-9a-f]{24}$"));
+            Set<String> rebuild = new HashSet<>();
+            summaries.find(stringKeyed).forEach(summary -> rebuild.add(summary.getString("_id")));
+            if (!rebuild.isEmpty()) {
+                summaries.deleteMany(stringKeyed);
+            }
+            
+            // Cafes whose approved reviews predate review summaries get one built from scratch
+            Query approved = new Query(Criteria.where("status").is("APPROVED"));
+            Set<String> missing = new HashSet<>(mongoTemplate.findDistinct(approved, "cafeId", Review.class, String.class));
+            for (Object id : mongoTemplate.findDistinct(new Query(), "_id", ReviewSummary.class, Object.class)) {
+                missing.remove(id.toString());
+            }
+            missing.addAll(rebuild);
+            if (missing.isEmpty()) return;
+            
+            Map<String, RatingDelta> totals = new HashMap<>();
+            Query reviews = new Query(Criteria.where("status").is("APPROVED").and("cafeId").in(missing));
+            try (Stream<Review> stream = mongoTemplate.stream(reviews, Review.class)) {
+                stream.forEach(review -> totals.computeIfAbsent(review.getCafeId(), id -> new RatingDelta()).add(review, 1));
+            }
+            rebuild.forEach(id -> totals.computeIfAbsent(id, k -> new RatingDelta()));
+            totals.forEach(reviewSummaries::replace);
+            log.info("Built review summaries for {} cafes", totals.size());
+        };
+    }
+    
+    @Bean
+    CommandLineRunner recomputePopularityScores(PopularityLeaderboard leaderboard) {
+        return args -> {
+            // Scores depend on the configured prior, so refresh them all in one pipeline update
+            Document avgRating = new Document("$ifNull", List.of("$avgRating", 0.0));
+            Object score = avgRating;
+            if (leaderboard.getPriorWeight() > 0) {
+                Document reviewsCount = new Document("$ifNull", List.of("$reviewsCount", 0));
+                score = new Document("$divide", List.of(
+                    new Document("$add", List.of(
+                        leaderboard.getPriorWeight() * leaderboard.getPriorMean(),
+                        new Document("$multiply", List.of(reviewsCount, avgRating)))),
+                    new Document("$add", List.of(reviewsCount, leaderboard.getPriorWeight()))));
+            }
+            
+            long updated = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Cafe.class))
+                .updateMany(new Document(), List.of(new Document("$set", new Document("popularityScore", score))))
+                .getModifiedCount();
+            log.info("Recomputed popularity scores for {} cafes", updated);
+        };
+    }
 }
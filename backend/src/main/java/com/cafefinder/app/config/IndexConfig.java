@@ -0,0 +1,77 @@
+package com.cafefinder.app.config;
+
+import com.cafefinder.app.model.Cafe;
+import com.cafefinder.app.model.Review;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+@Configuration
+public class IndexConfig {
+    private static final Logger log = LoggerFactory.getLogger(IndexConfig.class);
+
+    @Bean
+    CommandLineRunner ensureIndexes(MongoTemplate mongoTemplate) {
+        return args -> {
+            IndexOperations reviews = mongoTemplate.indexOps(Review.class);
+
+            // Moderation queue: keyset pagination by status ordered by createdAt
+            reviews.ensureIndex(new Index()
+                .on("status", Sort.Direction.ASC)
+                .on("createdAt", Sort.Direction.ASC)
+                .on("_id", Sort.Direction.ASC)
+                .named("status_createdAt"));
+
+            // Per-cafe and per-user review lists, also used by the filtered moderation queue
+            reviews.ensureIndex(new Index()
+                .on("cafeId", Sort.Direction.ASC)
+                .on("status", Sort.Direction.ASC)
+                .on("createdAt", Sort.Direction.ASC)
+                .named("cafeId_status_createdAt"));
+            reviews.ensureIndex(new Index()
+                .on("userId", Sort.Direction.ASC)
+                .on("status", Sort.Direction.ASC)
+                .on("createdAt", Sort.Direction.ASC)
+                .named("userId_status_createdAt"));
+
+            IndexOperations cafes = mongoTemplate.indexOps(Cafe.class);
+
+            // Popular cafes leaderboard loads, globally and per city
+            cafes.ensureIndex(new Index()
+                .on("popularityScore", Sort.Direction.DESC)
+                .on("reviewsCount", Sort.Direction.DESC)
+                .named("popularityScore_reviewsCount"));
+            cafes.ensureIndex(new Index()
+                .on("city", Sort.Direction.ASC)
+                .on("popularityScore", Sort.Direction.DESC)
+                .named("city_popularityScore"));
+
+            // Map viewport bounding-box queries
+            cafes.ensureIndex(new Index()
+                .on("latitude", Sort.Direction.ASC)
+                .on("longitude", Sort.Direction.ASC)
+                .named("latitude_longitude"));
+
+            // Duplicate detection for creates and bulk imports; backfilled by DatabaseMigration
+            cafes.ensureIndex(new Index()
+                .on("dedupeKey", Sort.Direction.ASC)
+                .unique()
+                .sparse()
+                .named("dedupeKey"));
+
+            // Open-now filter: $elemMatch on the compiled minute-of-week intervals
+            cafes.ensureIndex(new Index()
+                .on("openIntervals.start", Sort.Direction.ASC)
+                .on("openIntervals.end", Sort.Direction.ASC)
+                .named("openIntervals"));
+
+            log.info("Ensured MongoDB indexes");
+        };
+    }
+}
@@ -0,0 +1,16 @@
+package com.cafefinder.app.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
+
+/**
+ * Reactive Mongo repositories for the opt-in read API under /api/rx. Only active
+ * with the "reactive" profile, which also re-enables the reactive Mongo
+ * auto-configuration (see application-reactive.properties).
+ */
+@Configuration
+@Profile("reactive")
+@EnableReactiveMongoRepositories(basePackages = "com.cafefinder.app.repo.reactive")
+public class ReactiveConfig {
+}
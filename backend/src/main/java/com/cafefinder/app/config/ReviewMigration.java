@@ -2,6 +2,8 @@ package com.cafefinder.app.config;
 
 import com.cafefinder.app.model.Review;
 import com.cafefinder.app.repo.ReviewRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -10,6 +12,7 @@ import java.util.List;
 
 @Configuration
 public class ReviewMigration {
+    private static final Logger log = LoggerFactory.getLogger(ReviewMigration.class);
     
     @Bean
     CommandLineRunner migrateReviews(ReviewRepo reviewRepo) {
@@ -28,9 +31,9 @@ public class ReviewMigration {
             }
             
             if (anyUpdated) {
-                System.out.println("Migrated existing reviews to have status field - set as APPROVED");
+                log.info("Migrated existing reviews to have status field - set as APPROVED");
             } else {
-                System.out.println("No review migration needed - all reviews have status");
+                log.info("No review migration needed - all reviews have status");
             }
         };
     }
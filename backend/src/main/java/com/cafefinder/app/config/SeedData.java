@@ -9,6 +9,8 @@ import com.cafefinder.app.repo.CafeRepo;
 import com.cafefinder.app.repo.UserRepo;
 import com.cafefinder.app.repo.ReviewRepo;
 import com.cafefinder.app.repo.BusyRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -19,6 +21,8 @@ import java.util.*;
 
 @Configuration
 public class SeedData {
+    private static final Logger log = LoggerFactory.getLogger(SeedData.class);
+
     @Bean
     CommandLineRunner init(CafeRepo cafes, UserRepo users, ReviewRepo reviews, BusyRepo busyRepo, PasswordEncoder encoder){
         return args -> {
@@ -28,7 +32,7 @@ public class SeedData {
                 for (User user : sampleUsers) {
                     users.save(user);
                 }
-                System.out.println("Created " + sampleUsers.size() + " sample users");
+                log.info("Created {} sample users", sampleUsers.size());
             }
             
             // Create sample cafes if none exist
@@ -37,10 +41,10 @@ public class SeedData {
                 for (Cafe cafe : sampleCafes) {
                     cafes.save(cafe);
                 }
-                System.out.println("Created " + sampleCafes.size() + " sample cafes");
+                log.info("Created {} sample cafes", sampleCafes.size());
             } else {
                 // Update existing cafes with correct hours (including Sunday)
-                System.out.println("Updating hours for existing cafes to include Sunday...");
+                log.info("Updating hours for existing cafes to include Sunday...");
                 for (Cafe cafe : cafes.findAll()) {
                     Map<Integer, String> hours = new HashMap<>();
                     for (int i = 0; i <= 6; i++) {  // 0=Sunday through 6=Saturday
@@ -49,7 +53,7 @@ public class SeedData {
                     cafe.setHours(hours);
                     cafes.save(cafe);
                 }
-                System.out.println("Updated hours for all cafes");
+                log.info("Updated hours for all cafes");
             }
         };
     }
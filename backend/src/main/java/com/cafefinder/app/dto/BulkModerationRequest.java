@@ -0,0 +1,33 @@
+package com.cafefinder.app.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class BulkModerationRequest {
+
+    @NotEmpty(message = "At least one review ID is required")
+    @Size(max = 1000, message = "At most 1000 reviews can be moderated at once")
+    private List<String> reviewIds;
+
+    @NotNull(message = "Status is required")
+    @Pattern(regexp = "APPROVED|REJECTED", message = "Status must be either APPROVED or REJECTED")
+    private String status;
+
+    private String adminNotes;
+
+    public BulkModerationRequest() {}
+
+    // Getters and setters
+    public List<String> getReviewIds() { return reviewIds; }
+    public void setReviewIds(List<String> reviewIds) { this.reviewIds = reviewIds; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getAdminNotes() { return adminNotes; }
+    public void setAdminNotes(String adminNotes) { this.adminNotes = adminNotes; }
+}
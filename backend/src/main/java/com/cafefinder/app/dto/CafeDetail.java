@@ -0,0 +1,31 @@
+package com.cafefinder.app.dto;
+
+import com.cafefinder.app.model.Cafe;
+import com.cafefinder.app.model.Review;
+
+import java.util.List;
+import java.util.Map;
+
+// Everything the cafe page shows, loaded in one request
+public class CafeDetail {
+    private final Cafe cafe;
+    private final List<Review> reviews; // newest approved reviews first
+    private final boolean moreReviews;
+    private final Map<String, Object> busy;
+    private final Map<Integer, Double> hourlyTrends;
+
+    public CafeDetail(Cafe cafe, List<Review> reviews, boolean moreReviews,
+                      Map<String, Object> busy, Map<Integer, Double> hourlyTrends) {
+        this.cafe = cafe;
+        this.reviews = reviews;
+        this.moreReviews = moreReviews;
+        this.busy = busy;
+        this.hourlyTrends = hourlyTrends;
+    }
+
+    public Cafe getCafe() { return cafe; }
+    public List<Review> getReviews() { return reviews; }
+    public boolean isMoreReviews() { return moreReviews; }
+    public Map<String, Object> getBusy() { return busy; }
+    public Map<Integer, Double> getHourlyTrends() { return hourlyTrends; }
+}
@@ -0,0 +1,19 @@
+package com.cafefinder.app.dto;
+
+import com.cafefinder.app.model.Cafe;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+// A search result with its distance from the query point; serializes as the cafe plus distanceKm
+public class CafeDistance {
+    @JsonUnwrapped
+    private final Cafe cafe;
+    private final double distanceKm;
+
+    public CafeDistance(Cafe cafe, double distanceKm) {
+        this.cafe = cafe;
+        this.distanceKm = distanceKm;
+    }
+
+    public Cafe getCafe() { return cafe; }
+    public double getDistanceKm() { return distanceKm; }
+}
@@ -0,0 +1,38 @@
+package com.cafefinder.app.dto;
+
+// Just enough of a cafe to draw and label a map pin
+public class CafeMarker {
+    private String id;
+    private String name;
+    private double latitude;
+    private double longitude;
+    private double avgRating;
+    private String priceRange;
+
+    public CafeMarker(String id, String name, double latitude, double longitude, double avgRating, String priceRange) {
+        this.id = id;
+        this.name = name;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.avgRating = avgRating;
+        this.priceRange = priceRange;
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public double getLatitude() { return latitude; }
+    public void setLatitude(double latitude) { this.latitude = latitude; }
+
+    public double getLongitude() { return longitude; }
+    public void setLongitude(double longitude) { this.longitude = longitude; }
+
+    public double getAvgRating() { return avgRating; }
+    public void setAvgRating(double avgRating) { this.avgRating = avgRating; }
+
+    public String getPriceRange() { return priceRange; }
+    public void setPriceRange(String priceRange) { this.priceRange = priceRange; }
+}
@@ -0,0 +1,117 @@
+package com.cafefinder.app.dto;
+
+/**
+ * Query parameters shared by the cafe search endpoints. Spring binds request
+ * parameters onto it by name; unset filters are null and don't constrain results.
+ */
+public class CafeSearchFilters {
+    private String q;
+    private String city;
+    private Double lat;
+    private Double lng;
+    private Double radius = 10.0; // km, only applied with lat/lng
+
+    // Amenities
+    private Boolean wifi;
+    private Boolean seating;
+    private Boolean workFriendly;
+    private Boolean bathrooms;
+    private Boolean petFriendly;
+    private Boolean wheelchairAccessible;
+
+    private String priceRange;
+    private Double minRating;
+
+    // Single values matched against the cafe's lists
+    private String coffeeType;
+    private String alternativeMilk;
+    private String dietaryOption;
+
+    // Opening hours: openNow, or openAt as an ISO date-time (local times use cafefinder.hours.zone)
+    private Boolean openNow;
+    private String openAt;
+
+    private String sort; // "distance" orders by distance from lat/lng and adds distanceKm
+    private Integer limit;
+
+    public boolean hasText() { return q != null && !q.isBlank(); }
+    public boolean hasCity() { return city != null && !city.isBlank(); }
+    public boolean hasLocation() { return lat != null && lng != null && radius != null; }
+    public boolean sortByDistance() { return "distance".equalsIgnoreCase(sort) && hasLocation(); }
+
+    // Trims the text filters in place, so a cache key and the query built from them see the same values
+    public void trim() {
+        q = trim(q);
+        city = trim(city);
+        priceRange = trim(priceRange);
+        coffeeType = trim(coffeeType);
+        alternativeMilk = trim(alternativeMilk);
+        dietaryOption = trim(dietaryOption);
+        openAt = trim(openAt);
+        sort = trim(sort);
+    }
+
+    private static String trim(String value) {
+        return value != null ? value.trim() : null;
+    }
+
+    public String getQ() { return q; }
+    public void setQ(String q) { this.q = q; }
+
+    public String getCity() { return city; }
+    public void setCity(String city) { this.city = city; }
+
+    public Double getLat() { return lat; }
+    public void setLat(Double lat) { this.lat = lat; }
+
+    public Double getLng() { return lng; }
+    public void setLng(Double lng) { this.lng = lng; }
+
+    public Double getRadius() { return radius; }
+    public void setRadius(Double radius) { this.radius = radius; }
+
+    public Boolean getWifi() { return wifi; }
+    public void setWifi(Boolean wifi) { this.wifi = wifi; }
+
+    public Boolean getSeating() { return seating; }
+    public void setSeating(Boolean seating) { this.seating = seating; }
+
+    public Boolean getWorkFriendly() { return workFriendly; }
+    public void setWorkFriendly(Boolean workFriendly) { this.workFriendly = workFriendly; }
+
+    public Boolean getBathrooms() { return bathrooms; }
+    public void setBathrooms(Boolean bathrooms) { this.bathrooms = bathrooms; }
+
+    public Boolean getPetFriendly() { return petFriendly; }
+    public void setPetFriendly(Boolean petFriendly) { this.petFriendly = petFriendly; }
+
+    public Boolean getWheelchairAccessible() { return wheelchairAccessible; }
+    public void setWheelchairAccessible(Boolean wheelchairAccessible) { this.wheelchairAccessible = wheelchairAccessible; }
+
+    public String getPriceRange() { return priceRange; }
+    public void setPriceRange(String priceRange) { this.priceRange = priceRange; }
+
+    public Double getMinRating() { return minRating; }
+    public void setMinRating(Double minRating) { this.minRating = minRating; }
+
+    public String getCoffeeType() { return coffeeType; }
+    public void setCoffeeType(String coffeeType) { this.coffeeType = coffeeType; }
+
+    public String getAlternativeMilk() { return alternativeMilk; }
+    public void setAlternativeMilk(String alternativeMilk) { this.alternativeMilk = alternativeMilk; }
+
+    public String getDietaryOption() { return dietaryOption; }
+    public void setDietaryOption(String dietaryOption) { this.dietaryOption = dietaryOption; }
+
+    public Boolean getOpenNow() { return openNow; }
+    public void setOpenNow(Boolean openNow) { this.openNow = openNow; }
+
+    public String getOpenAt() { return openAt; }
+    public void setOpenAt(String openAt) { this.openAt = openAt; }
+
+    public String getSort() { return sort; }
+    public void setSort(String sort) { this.sort = sort; }
+
+    public Integer getLimit() { return limit; }
+    public void setLimit(Integer limit) { this.limit = limit; }
+}
@@ -0,0 +1,24 @@
+package com.cafefinder.app.dto;
+
+import java.util.List;
+
+public class MapView {
+    private List<CafeMarker> markers;
+    private List<MarkerCluster> clusters; // empty at zoom levels that show every cafe
+    private boolean truncated; // true when the viewport held more markers than were returned
+
+    public MapView(List<CafeMarker> markers, List<MarkerCluster> clusters, boolean truncated) {
+        this.markers = markers;
+        this.clusters = clusters;
+        this.truncated = truncated;
+    }
+
+    public List<CafeMarker> getMarkers() { return markers; }
+    public void setMarkers(List<CafeMarker> markers) { this.markers = markers; }
+
+    public List<MarkerCluster> getClusters() { return clusters; }
+    public void setClusters(List<MarkerCluster> clusters) { this.clusters = clusters; }
+
+    public boolean isTruncated() { return truncated; }
+    public void setTruncated(boolean truncated) { this.truncated = truncated; }
+}
@@ -0,0 +1,23 @@
+package com.cafefinder.app.dto;
+
+// Cafes aggregated into one grid cell at low zoom, drawn at their centroid
+public class MarkerCluster {
+    private double latitude;
+    private double longitude;
+    private long count;
+
+    public MarkerCluster(double latitude, double longitude, long count) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.count = count;
+    }
+
+    public double getLatitude() { return latitude; }
+    public void setLatitude(double latitude) { this.latitude = latitude; }
+
+    public double getLongitude() { return longitude; }
+    public void setLongitude(double longitude) { this.longitude = longitude; }
+
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+}
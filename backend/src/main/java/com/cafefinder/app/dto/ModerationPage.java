@@ -0,0 +1,21 @@
+package com.cafefinder.app.dto;
+
+import com.cafefinder.app.model.Review;
+
+import java.util.List;
+
+public class ModerationPage {
+    private List<Review> items;
+    private String nextCursor; // null when there are no more reviews
+
+    public ModerationPage(List<Review> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Review> getItems() { return items; }
+    public void setItems(List<Review> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
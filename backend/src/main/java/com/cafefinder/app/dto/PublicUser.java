@@ -0,0 +1,51 @@
+package com.cafefinder.app.dto;
+
+import com.cafefinder.app.model.User;
+
+import java.util.List;
+
+// The public face of a user account: no email, credentials, roles or social graph
+public class PublicUser {
+    /** Fields to project when only the public profile will be read. */
+    public static final String[] FIELDS = {
+            "username", "firstName", "lastName", "profilePhoto", "bio", "location",
+            "reputation", "totalReviews", "badges", "verified"};
+
+    private final String id;
+    private final String username;
+    private final String firstName;
+    private final String lastName;
+    private final String profilePhoto;
+    private final String bio;
+    private final String location;
+    private final int reputation;
+    private final int totalReviews;
+    private final List<String> badges;
+    private final boolean verified;
+
+    public PublicUser(User user) {
+        this.id = user.getId();
+        this.username = user.getUsername();
+        this.firstName = user.getFirstName();
+        this.lastName = user.getLastName();
+        this.profilePhoto = user.getProfilePhoto();
+        this.bio = user.getBio();
+        this.location = user.getLocation();
+        this.reputation = user.getReputation();
+        this.totalReviews = user.getTotalReviews();
+        this.badges = user.getBadges();
+        this.verified = user.isVerified();
+    }
+
+    public String getId() { return id; }
+    public String getUsername() { return username; }
+    public String getFirstName() { return firstName; }
+    public String getLastName() { return lastName; }
+    public String getProfilePhoto() { return profilePhoto; }
+    public String getBio() { return bio; }
+    public String getLocation() { return location; }
+    public int getReputation() { return reputation; }
+    public int getTotalReviews() { return totalReviews; }
+    public List<String> getBadges() { return badges; }
+    public boolean isVerified() { return verified; }
+}
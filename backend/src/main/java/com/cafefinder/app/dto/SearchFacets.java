@@ -0,0 +1,25 @@
+package com.cafefinder.app.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public class SearchFacets {
+    private List<String> ids; // matching cafe ids
+    private long total;
+    private Map<String, Map<String, Long>> counts; // facet -> value -> matching cafes
+
+    public SearchFacets(List<String> ids, long total, Map<String, Map<String, Long>> counts) {
+        this.ids = ids;
+        this.total = total;
+        this.counts = counts;
+    }
+
+    public List<String> getIds() { return ids; }
+    public void setIds(List<String> ids) { this.ids = ids; }
+
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+
+    public Map<String, Map<String, Long>> getCounts() { return counts; }
+    public void setCounts(Map<String, Map<String, Long>> counts) { this.counts = counts; }
+}
@@ -0,0 +1,22 @@
+package com.cafefinder.app.dto;
+
+public class Suggestion {
+    private String id;
+    private String name;
+    private String city;
+
+    public Suggestion(String id, String name, String city) {
+        this.id = id;
+        this.name = name;
+        this.city = city;
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getCity() { return city; }
+    public void setCity(String city) { this.city = city; }
+}
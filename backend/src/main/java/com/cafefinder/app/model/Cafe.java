@@ -1,6 +1,9 @@
 package com.cafefinder.app.model;
 
+import com.cafefinder.app.util.OpeningHours;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.util.List;
 import java.util.Map;
@@ -9,6 +12,10 @@ import java.util.Map;
 public class Cafe {
     @Id
     private String id;
+    @Version
+    private Long version; // document version, bumped by every write
+    private Long editVersion; // optimistic concurrency for owner edits; only owner edits bump it
+    private String dedupeKey; // normalized name + rounded coordinates, unique across cafes
     private String name;
     private String description;
     private String address;
@@ -22,6 +29,8 @@ public class Cafe {
     
     // Business hours - day of week (0=Sunday) to open/close times
     private Map<Integer, String> hours; // e.g., {1: "7:00-20:00", 2: "7:00-20:00"}
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private List<OpenInterval> openIntervals; // hours compiled to minute-of-week, kept in step by setHours
     
     // Amenities and features
     private boolean wifi;
@@ -49,6 +58,14 @@ public class Cafe {
     private double avgTasteRating;
     private int reviewsCount;
     
+    // Running totals over approved reviews; averages above are derived from these
+    private long ratingSum;
+    private long coffeeRatingSum;
+    private int coffeeRatingCount;
+    private long tasteRatingSum;
+    private int tasteRatingCount;
+    private double popularityScore; // Bayesian-weighted rating used for popular rankings
+    
     // Current status
     private String currentStatus; // "open", "closed", "busy"
     private Integer currentWaitTime; // minutes
@@ -68,6 +85,15 @@ public class Cafe {
     public String getId() { return id; }
     public void setId(String id) { this.id = id; }
     
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    
+    public Long getEditVersion() { return editVersion; }
+    public void setEditVersion(Long editVersion) { this.editVersion = editVersion; }
+    
+    public String getDedupeKey() { return dedupeKey; }
+    public void setDedupeKey(String dedupeKey) { this.dedupeKey = dedupeKey; }
+    
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
     
@@ -99,7 +125,13 @@ public class Cafe {
     public void setLongitude(double longitude) { this.longitude = longitude; }
     
     public Map<Integer, String> getHours() { return hours; }
-    public void setHours(Map<Integer, String> hours) { this.hours = hours; }
+    public void setHours(Map<Integer, String> hours) {
+        this.hours = hours;
+        this.openIntervals = OpeningHours.compile(hours);
+    }
+    
+    public List<OpenInterval> getOpenIntervals() { return openIntervals; }
+    public void setOpenIntervals(List<OpenInterval> openIntervals) { this.openIntervals = openIntervals; }
     
     public boolean isWifi() { return wifi; }
     public void setWifi(boolean wifi) { this.wifi = wifi; }
@@ -155,6 +187,24 @@ public class Cafe {
     public int getReviewsCount() { return reviewsCount; }
     public void setReviewsCount(int reviewsCount) { this.reviewsCount = reviewsCount; }
     
+    public long getRatingSum() { return ratingSum; }
+    public void setRatingSum(long ratingSum) { this.ratingSum = ratingSum; }
+    
+    public long getCoffeeRatingSum() { return coffeeRatingSum; }
+    public void setCoffeeRatingSum(long coffeeRatingSum) { this.coffeeRatingSum = coffeeRatingSum; }
+    
+    public int getCoffeeRatingCount() { return coffeeRatingCount; }
+    public void setCoffeeRatingCount(int coffeeRatingCount) { this.coffeeRatingCount = coffeeRatingCount; }
+    
+    public long getTasteRatingSum() { return tasteRatingSum; }
+    public void setTasteRatingSum(long tasteRatingSum) { this.tasteRatingSum = tasteRatingSum; }
+    
+    public int getTasteRatingCount() { return tasteRatingCount; }
+    public void setTasteRatingCount(int tasteRatingCount) { this.tasteRatingCount = tasteRatingCount; }
+    
+    public double getPopularityScore() { return popularityScore; }
+    public void setPopularityScore(double popularityScore) { this.popularityScore = popularityScore; }
+    
     public String getCurrentStatus() { return currentStatus; }
     public void setCurrentStatus(String currentStatus) { this.currentStatus = currentStatus; }
     
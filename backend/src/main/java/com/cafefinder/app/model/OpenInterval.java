@@ -0,0 +1,20 @@
+package com.cafefinder.app.model;
+
+// Opening period in minutes since Sunday 00:00 local time; end is exclusive
+public class OpenInterval {
+    private int start;
+    private int end;
+
+    public OpenInterval() {}
+
+    public OpenInterval(int start, int end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    public int getStart() { return start; }
+    public void setStart(int start) { this.start = start; }
+
+    public int getEnd() { return end; }
+    public void setEnd(int end) { this.end = end; }
+}
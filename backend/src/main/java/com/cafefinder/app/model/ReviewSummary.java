@@ -0,0 +1,60 @@
+package com.cafefinder.app.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Per-cafe tallies over approved reviews, kept current with $inc as reviews are moderated
+@Document(collection = "review_summaries")
+public class ReviewSummary {
+    @Id
+    private String cafeId;
+    private int reviewsCount;
+    private Map<String, Map<String, Long>> histograms = new LinkedHashMap<>(); // dimension -> stars ("1".."5") -> reviews
+    private Map<String, Map<String, Long>> amenities = new LinkedHashMap<>(); // amenity -> "yes"/"no" -> reviews
+    private long waitTimeSum;
+    private int waitTimeCount;
+
+    public ReviewSummary() {}
+
+    public ReviewSummary(String cafeId) {
+        this.cafeId = cafeId;
+    }
+
+    // Mean stars per dimension, derived from the histograms
+    public Map<String, Double> getAverages() {
+        Map<String, Double> averages = new LinkedHashMap<>();
+        histograms.forEach((dimension, counts) -> {
+            long total = 0, stars = 0;
+            for (Map.Entry<String, Long> bucket : counts.entrySet()) {
+                total += bucket.getValue();
+                stars += Long.parseLong(bucket.getKey()) * bucket.getValue();
+            }
+            if (total > 0) averages.put(dimension, (double) stars / total);
+        });
+        return averages;
+    }
+
+    public Double getMeanWaitTime() {
+        return waitTimeCount > 0 ? (double) waitTimeSum / waitTimeCount : null;
+    }
+
+    public String getCafeId() { return cafeId; }
+    public void setCafeId(String cafeId) { this.cafeId = cafeId; }
+
+    public int getReviewsCount() { return reviewsCount; }
+    public void setReviewsCount(int reviewsCount) { this.reviewsCount = reviewsCount; }
+
+    public Map<String, Map<String, Long>> getHistograms() { return histograms; }
+    public void setHistograms(Map<String, Map<String, Long>> histograms) { this.histograms = histograms; }
+
+    public Map<String, Map<String, Long>> getAmenities() { return amenities; }
+    public void setAmenities(Map<String, Map<String, Long>> amenities) { this.amenities = amenities; }
+
+    public long getWaitTimeSum() { return waitTimeSum; }
+    public void setWaitTimeSum(long waitTimeSum) { this.waitTimeSum = waitTimeSum; }
+
+    public int getWaitTimeCount() { return waitTimeCount; }
+    public void setWaitTimeCount(int waitTimeCount) { this.waitTimeCount = waitTimeCount; }
+}
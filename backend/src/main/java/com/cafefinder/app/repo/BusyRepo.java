@@ -9,4 +9,5 @@ public interface BusyRepo extends MongoRepository<BusyEntry, String> {
     List<BusyEntry> findByCafeIdOrderByTimestampDesc(String cafeId);
     List<BusyEntry> findByCafeIdAndTimestampAfterOrderByTimestampDesc(String cafeId, Instant after);
     BusyEntry findFirstByCafeIdOrderByTimestampDesc(String cafeId);
+    BusyEntry findFirstByCafeIdAndTimestampAfterOrderByTimestampDesc(String cafeId, Instant after);
 }
@@ -1,6 +1,8 @@
 package com.cafefinder.app.repo;
 
 import com.cafefinder.app.model.Review;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import java.util.List;
 
@@ -18,6 +20,7 @@ public interface ReviewRepo extends MongoRepository<Review, String> {
     
     // Public queries (approved reviews only)
     List<Review> findByCafeIdAndStatusOrderByCreatedAtDesc(String cafeId, String status);
+    Slice<Review> findByCafeIdAndStatusOrderByCreatedAtDesc(String cafeId, String status, Pageable pageable);
     List<Review> findByUserIdAndStatusOrderByCreatedAtDesc(String userId, String status);
     List<Review> findTop10ByStatusOrderByCreatedAtDesc(String status);
 }
@@ -0,0 +1,11 @@
+package com.cafefinder.app.repo.reactive;
+
+import com.cafefinder.app.model.BusyEntry;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+
+public interface ReactiveBusyRepo extends ReactiveMongoRepository<BusyEntry, String> {
+    Flux<BusyEntry> findByCafeIdAndTimestampAfterOrderByTimestampDesc(String cafeId, Instant after);
+}
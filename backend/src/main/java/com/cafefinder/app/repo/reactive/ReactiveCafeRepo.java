@@ -0,0 +1,7 @@
+package com.cafefinder.app.repo.reactive;
+
+import com.cafefinder.app.model.Cafe;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+public interface ReactiveCafeRepo extends ReactiveMongoRepository<Cafe, String> {
+}
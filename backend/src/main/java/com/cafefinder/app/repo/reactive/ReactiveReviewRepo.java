@@ -0,0 +1,10 @@
+package com.cafefinder.app.repo.reactive;
+
+import com.cafefinder.app.model.Review;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveReviewRepo extends ReactiveMongoRepository<Review, String> {
+    Flux<Review> findByCafeIdAndStatusOrderByCreatedAtDesc(String cafeId, String status);
+    Flux<Review> findTop10ByStatusOrderByCreatedAtDesc(String status);
+}
@@ -1,36 +1,82 @@
 package com.cafefinder.app.security;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.MediaType;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.AuthenticationEntryPoint;
+import org.springframework.security.web.access.AccessDeniedHandler;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
 
 @Component
-public class AuthEntryPointJwt implements AuthenticationEntryPoint {
+public class AuthEntryPointJwt implements AuthenticationEntryPoint, AccessDeniedHandler {
+    private static final Logger log = LoggerFactory.getLogger(AuthEntryPointJwt.class);
+
+    private final ObjectWriter errorWriter;
+    private final Counter unauthorizedCounter;
+    private final Counter forbiddenCounter;
+
+    public AuthEntryPointJwt(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.errorWriter = objectMapper.writerFor(ErrorBody.class);
+        this.unauthorizedCounter = Counter.builder("cafefinder.security.rejections")
+                .tag("status", "401")
+                .register(meterRegistry);
+        this.forbiddenCounter = Counter.builder("cafefinder.security.rejections")
+                .tag("status", "403")
+                .register(meterRegistry);
+    }
 
     @Override
     public void commence(HttpServletRequest request, HttpServletResponse response,
                          AuthenticationException authException) throws IOException, ServletException {
-        System.err.println("Unauthorized error: " + authException.getMessage());
+        unauthorizedCounter.increment();
+        log.warn("Unauthorized error: {}", authException.getMessage());
+        writeError(request, response, HttpServletResponse.SC_UNAUTHORIZED, "Unauthorized", authException.getMessage());
+    }
 
+    @Override
+    public void handle(HttpServletRequest request, HttpServletResponse response,
+                       AccessDeniedException accessDeniedException) throws IOException, ServletException {
+        forbiddenCounter.increment();
+        log.warn("Access denied: {}", accessDeniedException.getMessage());
+        writeError(request, response, HttpServletResponse.SC_FORBIDDEN, "Forbidden", accessDeniedException.getMessage());
+    }
+
+    private void writeError(HttpServletRequest request, HttpServletResponse response,
+                            int status, String error, String message) throws IOException {
         response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        response.setStatus(status);
+        errorWriter.writeValue(response.getOutputStream(),
+                new ErrorBody(status, error, message, request.getServletPath()));
+    }
+
+    // Fixed-shape error body so the writer can be resolved once up front
+    public static class ErrorBody {
+        private final int status;
+        private final String error;
+        private final String message;
+        private final String path;
 
-        final Map<String, Object> body = new HashMap<>();
-        body.put("status", HttpServletResponse.SC_UNAUTHORIZED);
-        body.put("error", "Unauthorized");
-        body.put("message", authException.getMessage());
-        body.put("path", request.getServletPath());
+        public ErrorBody(int status, String error, String message, String path) {
+            this.status = status;
+            this.error = error;
+            this.message = message;
+            this.path = path;
+        }
 
-        final ObjectMapper mapper = new ObjectMapper();
-        mapper.writeValue(response.getOutputStream(), body);
+        public int getStatus() { return status; }
+        public String getError() { return error; }
+        public String getMessage() { return message; }
+        public String getPath() { return path; }
     }
 }
@@ -0,0 +1,227 @@
+package com.cafefinder.app.service;
+
+import com.cafefinder.app.dto.CafeSearchFilters;
+import com.cafefinder.app.model.Cafe;
+import com.cafefinder.app.util.OpeningHours;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * In-memory bitmap index over cafe amenities, so amenity/price/list filters are
+ * answered by intersecting bitsets instead of querying Mongo.
+ *
+ * Each cafe gets a dense ordinal; every attribute value ("wifi=true",
+ * "priceRange=$$", "coffeeTypes=espresso", ...) has one bitset over those ordinals.
+ * The index is built once the application is ready and kept current from
+ * CafeChangedEvents. Ordinals of deleted cafes are not reused; their bits are
+ * cleared from every bitset and from the live set.
+ */
+@Component
+public class AmenityIndex {
+    private static final Logger log = LoggerFactory.getLogger(AmenityIndex.class);
+
+    private static final Map<String, Function<Cafe, Boolean>> FLAGS = new HashMap<>();
+    private static final Map<String, Function<Cafe, List<String>>> LISTS = new HashMap<>();
+    static {
+        FLAGS.put("wifi", Cafe::isWifi);
+        FLAGS.put("seating", Cafe::isSeating);
+        FLAGS.put("workFriendly", Cafe::isWorkFriendly);
+        FLAGS.put("bathrooms", Cafe::isBathrooms);
+        FLAGS.put("petFriendly", Cafe::isPetFriendly);
+        FLAGS.put("wheelchairAccessible", Cafe::isWheelchairAccessible);
+        LISTS.put("coffeeTypes", Cafe::getCoffeeTypes);
+        LISTS.put("alternativeMilks", Cafe::getAlternativeMilks);
+        LISTS.put("dietaryOptions", Cafe::getDietaryOptions);
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private final List<Cafe> cafes = new ArrayList<>(); // by ordinal; null once deleted
+    private final BitSet live = new BitSet();
+    private final Map<String, BitSet> bitmaps = new HashMap<>();
+    private boolean ready;
+
+    public AmenityIndex(MongoTemplate mongoTemplate, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        Gauge.builder("cafefinder.amenity.index.size", this, AmenityIndex::size)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        lock.writeLock().lock();
+        try {
+            Query query = new Query();
+            query.fields().exclude("menuItems");
+            List<Cafe> all = mongoTemplate.find(query, Cafe.class);
+
+            ordinals.clear();
+            cafes.clear();
+            live.clear();
+            bitmaps.clear();
+            all.forEach(this::put);
+            ready = true;
+            log.info("Amenity index built over {} cafes and {} attribute values", all.size(), bitmaps.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onCafeChanged(CafeChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            // Writes that land before the build are picked up by its query
+            if (!ready) return;
+            Cafe cafe = event.getCafe();
+            if (event.getType() == CafeChangedEvent.Type.DELETED) {
+                remove(cafe.getId());
+            } else {
+                put(stripped(cafe));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Cafes matching the amenity, price, list and rating filters, and open at
+     * openMinute (minute of the week) when that is given. Empty when the index
+     * can't answer (text or city filters, or not built yet).
+     */
+    public Optional<List<Cafe>> search(CafeSearchFilters filters, Integer openMinute) {
+        if (filters.hasText() || filters.hasCity()) {
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (!ready) return Optional.empty();
+
+            BitSet matches = (BitSet) live.clone();
+            flag(matches, "wifi", filters.getWifi());
+            flag(matches, "seating", filters.getSeating());
+            flag(matches, "workFriendly", filters.getWorkFriendly());
+            flag(matches, "bathrooms", filters.getBathrooms());
+            flag(matches, "petFriendly", filters.getPetFriendly());
+            flag(matches, "wheelchairAccessible", filters.getWheelchairAccessible());
+            value(matches, "priceRange", filters.getPriceRange());
+            value(matches, "coffeeTypes", filters.getCoffeeType());
+            value(matches, "alternativeMilks", filters.getAlternativeMilk());
+            value(matches, "dietaryOptions", filters.getDietaryOption());
+
+            List<Cafe> results = new ArrayList<>(matches.cardinality());
+            for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+                Cafe cafe = cafes.get(i);
+                if (filters.getMinRating() != null && cafe.getAvgRating() < filters.getMinRating()) continue;
+                if (openMinute != null && !OpeningHours.isOpen(cafe.getOpenIntervals(), openMinute)) continue;
+                results.add(cafe);
+            }
+            return Optional.of(results);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void flag(BitSet matches, String field, Boolean wanted) {
+        if (wanted == null) return;
+        BitSet set = bitmaps.get(key(field, "true"));
+        if (wanted) {
+            if (set == null) matches.clear(); else matches.and(set);
+        } else if (set != null) {
+            matches.andNot(set);
+        }
+    }
+
+    private void value(BitSet matches, String field, String wanted) {
+        if (wanted == null || wanted.isBlank()) return;
+        BitSet set = bitmaps.get(key(field, wanted));
+        if (set == null) matches.clear(); else matches.and(set);
+    }
+
+    private void put(Cafe cafe) {
+        Integer ordinal = ordinals.get(cafe.getId());
+        if (ordinal == null) {
+            ordinal = cafes.size();
+            ordinals.put(cafe.getId(), ordinal);
+            cafes.add(cafe);
+        } else {
+            clearBits(ordinal);
+            cafes.set(ordinal, cafe);
+        }
+
+        live.set(ordinal);
+        for (Map.Entry<String, Function<Cafe, Boolean>> flag : FLAGS.entrySet()) {
+            if (Boolean.TRUE.equals(flag.getValue().apply(cafe))) {
+                bitmap(key(flag.getKey(), "true")).set(ordinal);
+            }
+        }
+        if (cafe.getPriceRange() != null) {
+            bitmap(key("priceRange", cafe.getPriceRange())).set(ordinal);
+        }
+        for (Map.Entry<String, Function<Cafe, List<String>>> list : LISTS.entrySet()) {
+            List<String> values = list.getValue().apply(cafe);
+            if (values == null) continue;
+            for (String value : values) {
+                if (value != null) bitmap(key(list.getKey(), value)).set(ordinal);
+            }
+        }
+    }
+
+    private void remove(String id) {
+        Integer ordinal = ordinals.remove(id);
+        if (ordinal == null) return;
+        clearBits(ordinal);
+        cafes.set(ordinal, null);
+    }
+
+    private void clearBits(int ordinal) {
+        live.clear(ordinal);
+        for (BitSet set : bitmaps.values()) {
+            set.clear(ordinal);
+        }
+    }
+
+    private BitSet bitmap(String key) {
+        return bitmaps.computeIfAbsent(key, k -> new BitSet());
+    }
+
+    private static String key(String field, String value) {
+        return field + "=" + value;
+    }
+
+    // Held cafes are served from search results, which never include menus
+    private static Cafe stripped(Cafe cafe) {
+        Cafe copy = new Cafe();
+        BeanUtils.copyProperties(cafe, copy, "menuItems");
+        return copy;
+    }
+}
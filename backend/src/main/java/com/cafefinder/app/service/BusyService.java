@@ -0,0 +1,66 @@
+package com.cafefinder.app.service;
+
+import com.cafefinder.app.model.BusyEntry;
+import com.cafefinder.app.repo.BusyRepo;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Read side of crowd reports: the current status and hourly trends shown on
+ * the cafe page, shared by the busy endpoints and the composite cafe detail.
+ */
+@Service
+public class BusyService {
+    private static final int CURRENT_WINDOW_HOURS = 2;
+
+    private final BusyRepo repo;
+
+    public BusyService(BusyRepo repo) {
+        this.repo = repo;
+    }
+
+    // Most recent report within the last two hours, or "unknown"
+    public Map<String, Object> currentStatus(String cafeId) {
+        Instant since = Instant.now().minus(CURRENT_WINDOW_HOURS, ChronoUnit.HOURS);
+        BusyEntry latest = repo.findFirstByCafeIdAndTimestampAfterOrderByTimestampDesc(cafeId, since);
+
+        // LinkedHashMap rather than Map.of, which rejects the null fields
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (latest == null) {
+            status.put("status", "unknown");
+            status.put("crowdLevel", 0);
+            status.put("waitTime", null);
+            status.put("lastUpdated", null);
+        } else {
+            status.put("status", crowdStatus(latest.getCrowdLevel()));
+            status.put("crowdLevel", latest.getCrowdLevel());
+            status.put("waitTime", latest.getWaitMins());
+            status.put("lastUpdated", latest.getTimestamp());
+        }
+        return status;
+    }
+
+    // Average crowd level by UTC hour of day over the last few days
+    public Map<Integer, Double> hourlyTrends(String cafeId, int days) {
+        Instant since = Instant.now().minus(days, ChronoUnit.DAYS);
+        return repo.findByCafeIdAndTimestampAfterOrderByTimestampDesc(cafeId, since).stream()
+                .collect(Collectors.groupingBy(
+                    entry -> LocalDateTime.ofInstant(entry.getTimestamp(), ZoneOffset.UTC).getHour(),
+                    Collectors.averagingDouble(BusyEntry::getCrowdLevel)
+                ));
+    }
+
+    public static String crowdStatus(int crowdLevel) {
+        if (crowdLevel <= 30) return "quiet";
+        else if (crowdLevel <= 60) return "moderate";
+        else if (crowdLevel <= 85) return "busy";
+        else return "very_busy";
+    }
+}
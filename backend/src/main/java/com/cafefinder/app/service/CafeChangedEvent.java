@@ -0,0 +1,23 @@
+package com.cafefinder.app.service;
+
+import com.cafefinder.app.model.Cafe;
+
+/**
+ * Published by CafeService after a cafe write lands in Mongo, so in-memory
+ * read models (leaderboards, caches, indexes) can update themselves.
+ */
+public class CafeChangedEvent {
+    public enum Type { CREATED, UPDATED, RATINGS, STATUS, DELETED }
+
+    private final Cafe cafe;
+    private final Type type;
+
+    public CafeChangedEvent(Cafe cafe, Type type) {
+        this.cafe = cafe;
+        this.type = type;
+    }
+
+    // The cafe as written; for DELETED, the last known document
+    public Cafe getCafe() { return cafe; }
+    public Type getType() { return type; }
+}
@@ -0,0 +1,112 @@
+package com.cafefinder.app.service;
+
+import com.cafefinder.app.dto.CafeDetail;
+import com.cafefinder.app.model.Cafe;
+import com.cafefinder.app.model.Review;
+import com.cafefinder.app.repo.ReviewRepo;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Composite cafe page: the cafe, its newest approved reviews, the current crowd
+ * status and hourly trends, queried concurrently so the page waits only for the
+ * slowest of them rather than their sum.
+ *
+ * The queries run on a small bounded pool owned by this service. When the pool
+ * and its queue are full the request thread runs the query itself, so overload
+ * degrades to sequential loading instead of rejecting requests.
+ */
+@Service
+public class CafeDetailService {
+    private static final int TREND_DAYS = 7;
+    // Running totals and derived lookup fields the page has no use for
+    private static final String[] HIDDEN_FIELDS = {
+            "dedupeKey", "openIntervals", "ratingSum", "coffeeRatingSum", "coffeeRatingCount",
+            "tasteRatingSum", "tasteRatingCount"};
+
+    private final MongoTemplate mongoTemplate;
+    private final ReviewRepo reviewRepo;
+    private final BusyService busyService;
+    private final long timeoutMs;
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+    public CafeDetailService(MongoTemplate mongoTemplate, ReviewRepo reviewRepo, BusyService busyService,
+                             @Value("${cafefinder.detail.pool-size:16}") int poolSize,
+                             @Value("${cafefinder.detail.queue-capacity:200}") int queueCapacity,
+                             @Value("${cafefinder.detail.timeout-ms:5000}") long timeoutMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.reviewRepo = reviewRepo;
+        this.busyService = busyService;
+        this.timeoutMs = timeoutMs;
+
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("cafe-detail-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+    }
+
+    /** The cafe page for cafeId with up to reviewLimit reviews; empty when the cafe doesn't exist. */
+    @Timed("cafefinder.cafe.detail")
+    public Optional<CafeDetail> load(String cafeId, int reviewLimit) {
+        CompletableFuture<Cafe> cafe = CompletableFuture.supplyAsync(() -> findCafe(cafeId), executor);
+        CompletableFuture<Slice<Review>> reviews = CompletableFuture.supplyAsync(
+                () -> reviewRepo.findByCafeIdAndStatusOrderByCreatedAtDesc(cafeId, "APPROVED",
+                        PageRequest.of(0, reviewLimit)), executor);
+        CompletableFuture<Map<String, Object>> busy = CompletableFuture.supplyAsync(
+                () -> busyService.currentStatus(cafeId), executor);
+        CompletableFuture<Map<Integer, Double>> trends = CompletableFuture.supplyAsync(
+                () -> busyService.hourlyTrends(cafeId, TREND_DAYS), executor);
+
+        CompletableFuture<Void> all = CompletableFuture.allOf(cafe, reviews, busy, trends);
+        try {
+            all.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Drops queries still waiting in the pool's queue; ones already running against Mongo finish
+            for (CompletableFuture<?> part : List.of(cafe, reviews, busy, trends)) {
+                part.cancel(false);
+            }
+            throw new QueryTimeoutException("Cafe detail did not load within " + timeoutMs + " ms", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted loading cafe detail", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        }
+
+        if (cafe.join() == null) return Optional.empty();
+        Slice<Review> page = reviews.join();
+        return Optional.of(new CafeDetail(cafe.join(), page.getContent(), page.hasNext(), busy.join(), trends.join()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private Cafe findCafe(String cafeId) {
+        Query query = new Query(Criteria.where("id").is(cafeId));
+        query.fields().exclude(HIDDEN_FIELDS);
+        return mongoTemplate.findOne(query, Cafe.class);
+    }
+}
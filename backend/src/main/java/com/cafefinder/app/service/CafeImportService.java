@@ -0,0 +1,358 @@
+package com.cafefinder.app.service;
+
+import com.cafefinder.app.model.Cafe;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bulk cafe import from JSON (an array of cafe objects) or CSV (a header row of
+ * cafe field names; list fields separated by ';', hours as "hours.0".."hours.6").
+ *
+ * The upload is spooled to a temp file and imported in the background, one record
+ * at a time with Jackson's streaming parsers, so memory stays bounded by the batch
+ * size whatever the file size. Valid records are inserted in unordered bulk batches;
+ * the unique dedupeKey index rejects cafes that already exist, also within a file.
+ */
+@Service
+public class CafeImportService {
+    private static final Logger log = LoggerFactory.getLogger(CafeImportService.class);
+    private static final int DUPLICATE_KEY = 11000;
+
+    public enum Format { JSON, CSV }
+
+    private static final Set<String> PRICE_RANGES = new HashSet<>(Arrays.asList("$", "$$", "$$$", "$$$$"));
+    private static final Set<String> LIST_FIELDS = new HashSet<>(Arrays.asList(
+            "alternativeMilks", "coffeeTypes", "dietaryOptions", "socials", "photos", "tags"));
+    // Amenity columns also accept yes/y/no/n; every other column keeps its text as written
+    private static final Set<String> BOOLEAN_FIELDS = new HashSet<>(Arrays.asList(
+            "wifi", "seating", "workFriendly", "bathrooms", "petFriendly", "wheelchairAccessible"));
+
+    private final MongoTemplate mongoTemplate;
+    private final CafeService cafeService;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher events;
+    private final CsvMapper csvMapper = new CsvMapper();
+    private final int batchSize;
+    private final int maxErrors;
+    private final int history;
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> new Thread(r, "cafe-import"));
+    private final Map<String, ImportJob> jobs = new LinkedHashMap<>();
+    private final ReentrantLock jobsLock = new ReentrantLock();
+
+    public CafeImportService(MongoTemplate mongoTemplate, CafeService cafeService, ObjectMapper objectMapper,
+                             ApplicationEventPublisher events,
+                             @Value("${cafefinder.import.batch-size:500}") int batchSize,
+                             @Value("${cafefinder.import.max-errors:200}") int maxErrors,
+                             @Value("${cafefinder.import.history:20}") int history) {
+        this.mongoTemplate = mongoTemplate;
+        this.cafeService = cafeService;
+        this.objectMapper = objectMapper;
+        this.events = events;
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+        this.history = history;
+    }
+
+    /** Spools the upload and queues it; imports run one at a time. */
+    public ImportJob start(InputStream upload, Format format) throws IOException {
+        Path file = Files.createTempFile("cafe-import-", "." + format.name().toLowerCase(Locale.ROOT));
+        try {
+            Files.copy(upload, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), format.name(), maxErrors);
+        jobsLock.lock();
+        try {
+            jobs.put(job.getId(), job);
+            // Forget the oldest finished jobs beyond the history size
+            jobs.values().removeIf(j -> jobs.size() > history && j.getFinishedAt() != null);
+        } finally {
+            jobsLock.unlock();
+        }
+        worker.submit(() -> run(job, file, format));
+        return job;
+    }
+
+    public Optional<ImportJob> getJob(String id) {
+        jobsLock.lock();
+        try {
+            return Optional.ofNullable(jobs.get(id));
+        } finally {
+            jobsLock.unlock();
+        }
+    }
+
+    public List<ImportJob> getJobs() {
+        jobsLock.lock();
+        try {
+            return new ArrayList<>(jobs.values());
+        } finally {
+            jobsLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    private void run(ImportJob job, Path file, Format format) {
+        job.start();
+        Batch batch = new Batch(job);
+        try (InputStream in = Files.newInputStream(file)) {
+            if (format == Format.JSON) {
+                readJson(in, job, batch);
+            } else {
+                readCsv(in, job, batch);
+            }
+            batch.flush();
+            job.complete();
+            log.info("Import {} completed: {} rows, {} inserted, {} duplicates, {} invalid", job.getId(),
+                    job.getRowsRead(), job.getInserted(), job.getDuplicates(), job.getInvalid());
+        } catch (Exception e) {
+            job.fail(e.getMessage());
+            log.warn("Import {} failed after {} rows: {}", job.getId(), job.getRowsRead(), e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not delete import file {}", file);
+            }
+        }
+    }
+
+    private void readJson(InputStream in, ImportJob job, Batch batch) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array of cafes");
+            }
+            long row = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) throw new IOException("Unexpected end of input inside the JSON array");
+                row++;
+                job.rowRead();
+                if (token != JsonToken.START_OBJECT) {
+                    // Nulls, numbers or nested arrays count as bad rows; the rest of the file still loads
+                    parser.skipChildren();
+                    job.invalid(row, "Expected a cafe object, found " + token);
+                    continue;
+                }
+                // One record in memory at a time; a bad record doesn't derail the parser
+                JsonNode node = objectMapper.readTree(parser);
+                try {
+                    accept(objectMapper.treeToValue(node, Cafe.class), row, job, batch);
+                } catch (IOException | IllegalArgumentException e) {
+                    job.invalid(row, "Unreadable record: " + e.getMessage());
+                }
+            }
+            if (parser.nextToken() != null) {
+                throw new IOException("Unexpected content after the JSON array");
+            }
+        }
+    }
+
+    private void readCsv(InputStream in, ImportJob job, Batch batch) throws IOException {
+        CsvSchema schema = CsvSchema.emptySchema().withHeader();
+        try (MappingIterator<Map<String, String>> rows = csvMapper.readerForMapOf(String.class).with(schema).readValues(in)) {
+            long row = 0;
+            while (rows.hasNextValue()) {
+                Map<String, String> values = rows.nextValue();
+                row++;
+                job.rowRead();
+                try {
+                    accept(objectMapper.convertValue(fromCsv(values), Cafe.class), row, job, batch);
+                } catch (IllegalArgumentException e) {
+                    job.invalid(row, "Unreadable record: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    // CSV cells are all strings: split list columns, gather hours columns, drop empty cells
+    private static Map<String, Object> fromCsv(Map<String, String> values) {
+        Map<String, Object> record = new HashMap<>();
+        Map<String, String> hours = new HashMap<>();
+        for (Map.Entry<String, String> cell : values.entrySet()) {
+            String field = cell.getKey().trim();
+            String value = cell.getValue() == null ? "" : cell.getValue().trim();
+            if (value.isEmpty()) continue;
+            if (field.startsWith("hours.")) {
+                hours.put(field.substring("hours.".length()), value);
+            } else if (LIST_FIELDS.contains(field)) {
+                record.put(field, Arrays.asList(value.split(";")));
+            } else if (BOOLEAN_FIELDS.contains(field) && (value.equalsIgnoreCase("yes") || value.equalsIgnoreCase("y"))) {
+                record.put(field, "true");
+            } else if (BOOLEAN_FIELDS.contains(field) && (value.equalsIgnoreCase("no") || value.equalsIgnoreCase("n"))) {
+                record.put(field, "false");
+            } else {
+                record.put(field, value);
+            }
+        }
+        if (!hours.isEmpty()) record.put("hours", hours);
+        return record;
+    }
+
+    private void accept(Cafe cafe, long row, ImportJob job, Batch batch) {
+        normalize(cafe);
+        String error = validate(cafe);
+        if (error != null) {
+            job.invalid(row, error);
+            return;
+        }
+
+        // Imported cafes start like any new cafe: unclaimed, unrated, version 0
+        cafe.setId(new ObjectId().toHexString());
+        cafe.setVersion(0L);
+        cafe.setEditVersion(0L);
+        cafe.setOwnerId(null);
+        cafe.setClaimed(false);
+        cafe.setClaimStatus("UNCLAIMED");
+        cafe.setClaimedAt(null);
+        cafe.setVerified(false);
+        cafeService.initializeNewCafe(cafe);
+        batch.add(cafe, row);
+    }
+
+    private static void normalize(Cafe cafe) {
+        cafe.setName(clean(cafe.getName()));
+        cafe.setDescription(clean(cafe.getDescription()));
+        cafe.setAddress(clean(cafe.getAddress()));
+        cafe.setCity(clean(cafe.getCity()));
+        String state = clean(cafe.getState());
+        cafe.setState(state == null ? null : state.toUpperCase(Locale.ROOT));
+        cafe.setZipCode(clean(cafe.getZipCode()));
+        cafe.setPhone(clean(cafe.getPhone()));
+        cafe.setWebsite(clean(cafe.getWebsite()));
+        cafe.setPriceRange(clean(cafe.getPriceRange()));
+        cafe.setParking(lower(clean(cafe.getParking())));
+        cafe.setAlternativeMilks(cleanList(cafe.getAlternativeMilks(), true));
+        cafe.setCoffeeTypes(cleanList(cafe.getCoffeeTypes(), true));
+        cafe.setDietaryOptions(cleanList(cafe.getDietaryOptions(), true));
+        cafe.setTags(cleanList(cafe.getTags(), true));
+        cafe.setSocials(cleanList(cafe.getSocials(), false));
+        cafe.setPhotos(cleanList(cafe.getPhotos(), false));
+    }
+
+    private static String validate(Cafe cafe) {
+        if (cafe.getName() == null) return "name is required";
+        if (!Double.isFinite(cafe.getLatitude()) || !Double.isFinite(cafe.getLongitude())) {
+            return "latitude and longitude must be finite numbers";
+        }
+        if (cafe.getLatitude() == 0 && cafe.getLongitude() == 0) return "latitude and longitude are required";
+        if (cafe.getLatitude() < -90 || cafe.getLatitude() > 90) return "latitude out of range: " + cafe.getLatitude();
+        if (cafe.getLongitude() < -180 || cafe.getLongitude() > 180) return "longitude out of range: " + cafe.getLongitude();
+        if (cafe.getPriceRange() != null && !PRICE_RANGES.contains(cafe.getPriceRange())) {
+            return "priceRange must be one of $, $$, $$$, $$$$";
+        }
+        return null;
+    }
+
+    private static String clean(String value) {
+        if (value == null) return null;
+        String cleaned = value.trim().replaceAll("\\s+", " ");
+        return cleaned.isEmpty() ? null : cleaned;
+    }
+
+    private static String lower(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String> cleanList(List<String> values, boolean lowercase) {
+        if (values == null) return null;
+        Set<String> cleaned = new LinkedHashSet<>();
+        for (String value : values) {
+            String item = clean(value);
+            if (item != null) cleaned.add(lowercase ? item.toLowerCase(Locale.ROOT) : item);
+        }
+        return new ArrayList<>(cleaned);
+    }
+
+    // Pending inserts, written as one unordered bulk operation when full
+    private final class Batch {
+        private final ImportJob job;
+        private final List<Cafe> cafes = new ArrayList<>(batchSize);
+        private final List<Long> rows = new ArrayList<>(batchSize);
+
+        Batch(ImportJob job) {
+            this.job = job;
+        }
+
+        void add(Cafe cafe, long row) {
+            cafes.add(cafe);
+            rows.add(row);
+            if (cafes.size() >= batchSize) flush();
+        }
+
+        void flush() {
+            if (cafes.isEmpty()) return;
+
+            Set<Integer> rejected = new HashSet<>();
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Cafe.class);
+            bulk.insert(cafes);
+            try {
+                bulk.execute();
+            } catch (BulkOperationException e) {
+                // Unordered: everything without an error was still written
+                for (BulkWriteError error : e.getErrors()) {
+                    rejected.add(error.getIndex());
+                    long row = rows.get(error.getIndex());
+                    if (error.getCode() == DUPLICATE_KEY) {
+                        job.duplicate(row, "Duplicate of an existing cafe: " + cafes.get(error.getIndex()).getName());
+                    } else {
+                        job.invalid(row, error.getMessage());
+                    }
+                }
+            }
+
+            for (int i = 0; i < cafes.size(); i++) {
+                if (!rejected.contains(i)) {
+                    events.publishEvent(new CafeChangedEvent(cafes.get(i), CafeChangedEvent.Type.CREATED));
+                }
+            }
+            job.inserted(cafes.size() - rejected.size());
+            cafes.clear();
+            rows.clear();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.cafefinder.app.service;
+
+import com.cafefinder.app.model.Cafe;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Batched cafe lookup by id. Loads cafes as search results carry them (no menu,
+ * no internal running totals) with one $in query for the whole list.
+ */
+@Component
+public class CafeLoader {
+    private static final String[] HIDDEN_FIELDS = {
+            "menuItems", "dedupeKey", "openIntervals", "ratingSum", "coffeeRatingSum", "coffeeRatingCount",
+            "tasteRatingSum", "tasteRatingCount"};
+
+    private final MongoTemplate mongoTemplate;
+
+    public CafeLoader(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /** Cafes in the order of ids, with null for ids that have none; callers bound the list size. */
+    public List<Cafe> loadMany(List<String> ids) {
+        Set<String> distinct = new LinkedHashSet<>(ids);
+        distinct.remove(null);
+        Map<String, Cafe> cafes = new HashMap<>();
+        if (!distinct.isEmpty()) {
+            Query query = new Query(Criteria.where("id").in(distinct));
+            query.fields().exclude(HIDDEN_FIELDS);
+            for (Cafe cafe : mongoTemplate.find(query, Cafe.class)) cafes.put(cafe.getId(), cafe);
+        }
+        List<Cafe> result = new ArrayList<>(ids.size());
+        for (String id : ids) result.add(id != null ? cafes.get(id) : null);
+        return result;
+    }
+}
@@ -1,42 +1,237 @@
 package com.cafefinder.app.service;
 
+import com.cafefinder.app.dto.CafeDistance;
+import com.cafefinder.app.dto.CafeSearchFilters;
+import com.cafefinder.app.dto.SearchFacets;
 import com.cafefinder.app.model.Cafe;
+import com.cafefinder.app.model.MenuItem;
 import com.cafefinder.app.repo.CafeRepo;
 import com.cafefinder.app.repo.ReviewRepo;
+import com.cafefinder.app.util.GeoDistance;
+import com.cafefinder.app.util.NearestK;
+import com.cafefinder.app.util.OpeningHours;
 import com.cafefinder.app.model.Review;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
 
 @Service
 public class CafeService {
+    // Boundaries of the rating facet bands; the last one sits above 5.0 so the top band includes it
+    private static final double[] RATING_BANDS = {0, 1, 2, 3, 4, 5.01};
+
+    // Fields owners may edit; ratings, busy status and claim state are server-managed
+    public static final List<String> EDITABLE_FIELDS = Arrays.asList(
+            "name", "description", "address", "city", "state", "zipCode", "phone", "website",
+            "latitude", "longitude", "hours", "wifi", "seating", "workFriendly", "bathrooms",
+            "petFriendly", "wheelchairAccessible", "parking", "alternativeMilks", "menuItems",
+            "coffeeTypes", "dietaryOptions", "priceRange", "socials", "photos", "tags");
+
     private final CafeRepo cafeRepo;
     private final ReviewRepo reviewRepo;
     private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+    private final PopularityLeaderboard leaderboard;
+    private final ApplicationEventPublisher events;
+    private final ObjectMapper objectMapper;
+    private final AmenityIndex amenityIndex;
+    private final ReviewSummaryService reviewSummaries;
+    private final ZoneId hoursZone;
 
-    public CafeService(CafeRepo cafeRepo, ReviewRepo reviewRepo, MongoTemplate mongoTemplate){
+    public CafeService(CafeRepo cafeRepo, ReviewRepo reviewRepo, MongoTemplate mongoTemplate, MeterRegistry meterRegistry,
+                       PopularityLeaderboard leaderboard, ApplicationEventPublisher events, ObjectMapper objectMapper,
+                       AmenityIndex amenityIndex, ReviewSummaryService reviewSummaries,
+                       @Value("${cafefinder.hours.zone:America/New_York}") String hoursZone){
         this.cafeRepo = cafeRepo;
         this.reviewRepo = reviewRepo;
         this.mongoTemplate = mongoTemplate;
+        this.meterRegistry = meterRegistry;
+        this.leaderboard = leaderboard;
+        this.events = events;
+        this.objectMapper = objectMapper;
+        this.amenityIndex = amenityIndex;
+        this.reviewSummaries = reviewSummaries;
+        this.hoursZone = ZoneId.of(hoursZone);
     }
 
+    @Timed("cafefinder.cafe.service")
     public List<Cafe> search(String q){
-        if(q == null || q.isBlank()) return cafeRepo.findAll();
-        return cafeRepo.findByNameContainingIgnoreCase(q);
+        if(q == null || q.isBlank()) return recordResults("search", cafeRepo.findAll());
+        return recordResults("search", cafeRepo.findByNameContainingIgnoreCase(q));
     }
 
-    public List<Cafe> searchWithFilters(String q, String city, Double lat, Double lng, Double radius, 
-                                       Boolean wifi, Boolean seating, Boolean workFriendly, 
-                                       String priceRange, Double minRating) {
+    @Timed("cafefinder.cafe.service")
+    public List<?> searchWithFilters(CafeSearchFilters filters) {
+        Integer openMinute = openMinute(filters);
+        // Amenity-only searches are answered from the in-memory bitmap index
+        Optional<List<Cafe>> indexed = amenityIndex.search(filters, openMinute);
+        if (indexed.isPresent()) {
+            return recordResults("searchWithFilters", finishSearch(filters, indexed.get()));
+        }
+
         Query query = new Query();
+        List<Criteria> criteria = buildSearchCriteria(filters, openMinute);
+        if (!criteria.isEmpty()) {
+            query.addCriteria(new Criteria().andOperator(criteria.toArray(new Criteria[0])));
+        }
+        excludeMenu(query);
+
+        List<Cafe> results = mongoTemplate.find(query, Cafe.class);
+        return recordResults("searchWithFilters", finishSearch(filters, results));
+    }
+
+    // Radius filter, then distance ordering or plain truncation
+    private List<?> finishSearch(CafeSearchFilters filters, List<Cafe> results) {
+        if (filters.sortByDistance()) {
+            return nearest(results, filters.getLat(), filters.getLng(), filters.getRadius(), filters.getLimit());
+        }
+        if (filters.hasLocation()) {
+            results = filterByDistance(results, filters.getLat(), filters.getLng(), filters.getRadius());
+        }
+        return truncate(results, filters.getLimit());
+    }
+
+    /**
+     * Matching cafe ids plus per-facet counts for the search filters, computed in
+     * one $facet aggregation instead of a search per facet value. Counts reflect
+     * the filters as given, so a facet that is itself filtered only shows the
+     * selected value.
+     */
+    @Timed("cafefinder.cafe.service")
+    public SearchFacets searchFacets(CafeSearchFilters filters) {
+        List<AggregationOperation> stages = new ArrayList<>();
+        List<Criteria> criteria = buildSearchCriteria(filters, openMinute(filters));
+        if (!criteria.isEmpty()) {
+            stages.add(Aggregation.match(new Criteria().andOperator(criteria.toArray(new Criteria[0]))));
+        }
+        if (filters.hasLocation()) {
+            stages.add(withinRadius(filters.getLat(), filters.getLng(), filters.getRadius()));
+        }
+        stages.add(Aggregation.facet(Aggregation.project("_id")).as("ids")
+                .and(Aggregation.count().as("count")).as("total")
+                .and(Aggregation.group("wifi").count().as("count")).as("wifi")
+                .and(Aggregation.group("seating").count().as("count")).as("seating")
+                .and(Aggregation.group("workFriendly").count().as("count")).as("workFriendly")
+                .and(Aggregation.group("petFriendly").count().as("count")).as("petFriendly")
+                .and(Aggregation.group("priceRange").count().as("count")).as("priceRange")
+                // Cafes without reviews keep avgRating 0.0, so bucket them by reviewsCount instead;
+                // the string falls outside the numeric boundaries and lands in the default bucket
+                .and(Aggregation.bucket(ConditionalOperators
+                                .when(ComparisonOperators.valueOf("reviewsCount").greaterThanValue(0))
+                                .thenValueOf("avgRating")
+                                .otherwise("unrated"))
+                        .withBoundaries(RATING_BANDS[0], RATING_BANDS[1], RATING_BANDS[2],
+                                RATING_BANDS[3], RATING_BANDS[4], RATING_BANDS[5])
+                        .withDefaultBucket("unrated")
+                        .andOutputCount().as("count")).as("rating"));
+
+        Document result = mongoTemplate.aggregate(Aggregation.newAggregation(stages), "cafes", Document.class)
+                .getUniqueMappedResult();
+
+        List<String> ids = new ArrayList<>();
+        for (Document doc : facet(result, "ids")) {
+            ids.add(doc.get("_id").toString());
+        }
+        List<Document> total = facet(result, "total");
+        long count = total.isEmpty() ? 0 : ((Number) total.get(0).get("count")).longValue();
+
+        Map<String, Map<String, Long>> counts = new LinkedHashMap<>();
+        for (String field : Arrays.asList("wifi", "seating", "workFriendly", "petFriendly")) {
+            // Missing booleans read as false on the model, so count them that way too
+            Map<String, Long> values = new LinkedHashMap<>();
+            values.put("true", 0L);
+            values.put("false", 0L);
+            for (Document doc : facet(result, field)) {
+                values.merge(Boolean.TRUE.equals(doc.get("_id")) ? "true" : "false",
+                        ((Number) doc.get("count")).longValue(), Long::sum);
+            }
+            counts.put(field, values);
+        }
+        Map<String, Long> prices = new LinkedHashMap<>();
+        for (Document doc : facet(result, "priceRange")) {
+            if (doc.get("_id") != null) {
+                prices.put(doc.get("_id").toString(), ((Number) doc.get("count")).longValue());
+            }
+        }
+        counts.put("priceRange", prices);
+        Map<String, Long> ratings = new LinkedHashMap<>();
+        for (Document doc : facet(result, "rating")) {
+            Object band = doc.get("_id");
+            String label = band instanceof Number ? ratingBandLabel(((Number) band).intValue()) : band.toString();
+            ratings.put(label, ((Number) doc.get("count")).longValue());
+        }
+        counts.put("rating", ratings);
+
+        return new SearchFacets(ids, count, counts);
+    }
+
+    /**
+     * Minute of the week the open-hours filter asks about, or null when it isn't used.
+     *
+     * @throws IllegalArgumentException if openAt is not an ISO date-time
+     */
+    public Integer openMinute(CafeSearchFilters filters) {
+        if (filters.getOpenAt() != null && !filters.getOpenAt().isBlank()) {
+            return OpeningHours.minuteOfWeek(parseOpenAt(filters.getOpenAt().trim()));
+        }
+        if (Boolean.TRUE.equals(filters.getOpenNow())) {
+            return OpeningHours.minuteOfWeek(ZonedDateTime.now(hoursZone));
+        }
+        return null;
+    }
+
+    // Times with an offset or zone are converted to the hours zone; plain local times are taken as-is
+    private ZonedDateTime parseOpenAt(String openAt) {
+        try {
+            return ZonedDateTime.parse(openAt).withZoneSameInstant(hoursZone);
+        } catch (DateTimeParseException e) {
+            try {
+                return LocalDateTime.parse(openAt).atZone(hoursZone);
+            } catch (DateTimeParseException e2) {
+                throw new IllegalArgumentException("openAt must be an ISO date-time, e.g. 2024-05-04T08:30");
+            }
+        }
+    }
+
+    // Shared by the search and facet queries so both always agree on what matches
+    private static List<Criteria> buildSearchCriteria(CafeSearchFilters filters, Integer openMinute) {
         List<Criteria> criteria = new ArrayList<>();
 
         // Text search
-        if (q != null && !q.isBlank()) {
+        if (filters.hasText()) {
+            String q = filters.getQ();
             criteria.add(new Criteria().orOperator(
                 Criteria.where("name").regex(q, "i"),
                 Criteria.where("description").regex(q, "i"),
@@ -45,121 +240,485 @@ public class CafeService {
         }
 
         // Location filters
-        if (city != null && !city.isBlank()) {
-            criteria.add(Criteria.where("city").regex(city, "i"));
+        if (filters.hasCity()) {
+            criteria.add(Criteria.where("city").regex(filters.getCity(), "i"));
+        }
+        if (filters.hasLocation()) {
+            criteria.addAll(boundingBox(filters.getLat(), filters.getLng(), filters.getRadius()));
         }
 
         // Amenity filters
-        if (wifi != null) {
-            criteria.add(Criteria.where("wifi").is(wifi));
-        }
-        if (seating != null) {
-            criteria.add(Criteria.where("seating").is(seating));
+        addFlag(criteria, "wifi", filters.getWifi());
+        addFlag(criteria, "seating", filters.getSeating());
+        addFlag(criteria, "workFriendly", filters.getWorkFriendly());
+        addFlag(criteria, "bathrooms", filters.getBathrooms());
+        addFlag(criteria, "petFriendly", filters.getPetFriendly());
+        addFlag(criteria, "wheelchairAccessible", filters.getWheelchairAccessible());
+
+        // Price range filter
+        addValue(criteria, "priceRange", filters.getPriceRange());
+
+        // List filters match any element
+        addValue(criteria, "coffeeTypes", filters.getCoffeeType());
+        addValue(criteria, "alternativeMilks", filters.getAlternativeMilk());
+        addValue(criteria, "dietaryOptions", filters.getDietaryOption());
+
+        // Rating filter
+        if (filters.getMinRating() != null) {
+            criteria.add(Criteria.where("avgRating").gte(filters.getMinRating()));
         }
-        if (workFriendly != null) {
-            criteria.add(Criteria.where("workFriendly").is(workFriendly));
+
+        // Open at a minute of the week, on the openIntervals multikey index
+        if (openMinute != null) {
+            criteria.add(Criteria.where("openIntervals").elemMatch(
+                    Criteria.where("start").lte(openMinute).and("end").gt(openMinute)));
         }
+        return criteria;
+    }
 
-        // Price range filter
-        if (priceRange != null && !priceRange.isBlank()) {
-            criteria.add(Criteria.where("priceRange").is(priceRange));
+    // A false flag also matches cafes where the field is missing, as the model reads it
+    private static void addFlag(List<Criteria> criteria, String field, Boolean value) {
+        if (value != null) {
+            criteria.add(value ? Criteria.where(field).is(true) : Criteria.where(field).ne(true));
         }
+    }
 
-        // Rating filter
-        if (minRating != null) {
-            criteria.add(Criteria.where("avgRating").gte(minRating));
+    private static void addValue(List<Criteria> criteria, String field, String value) {
+        if (value != null && !value.isBlank()) {
+            criteria.add(Criteria.where(field).is(value));
         }
+    }
 
-        if (!criteria.isEmpty()) {
-            query.addCriteria(new Criteria().andOperator(criteria.toArray(new Criteria[0])));
+    // Coarse lat/lng box around the search circle; the exact distance check happens afterwards
+    private static List<Criteria> boundingBox(double lat, double lng, double radiusKm) {
+        GeoDistance.RadiusFilter filter = GeoDistance.within(lat, lng, radiusKm);
+        List<Criteria> box = new ArrayList<>();
+        box.add(Criteria.where("latitude").gte(filter.getMinLat()).lte(filter.getMaxLat()));
+        if (filter.boundsLongitude()) {
+            box.add(Criteria.where("longitude").gte(filter.getMinLng()).lte(filter.getMaxLng()));
         }
+        return box;
+    }
 
-        List<Cafe> results = mongoTemplate.find(query, Cafe.class);
+    // Exact great-circle filter for aggregations: cos(central angle) >= cos(radius / R)
+    private static AggregationOperation withinRadius(double lat, double lng, double radiusKm) {
+        double phi = Math.toRadians(lat);
+        Document cafePhi = new Document("$degreesToRadians", "$latitude");
+        Document deltaLambda = new Document("$degreesToRadians",
+                new Document("$subtract", Arrays.asList("$longitude", lng)));
+        Document cosAngle = new Document("$add", Arrays.asList(
+                new Document("$multiply", Arrays.asList(Math.sin(phi), new Document("$sin", cafePhi))),
+                new Document("$multiply", Arrays.asList(Math.cos(phi), new Document("$cos", cafePhi),
+                        new Document("$cos", deltaLambda)))));
+        Document expr = new Document("$gte", Arrays.asList(cosAngle, Math.cos(Math.min(radiusKm / GeoDistance.EARTH_RADIUS_KM, Math.PI))));
+        return context -> new Document("$match", new Document("$expr", expr));
+    }
+
+    private static String ratingBandLabel(int lower) {
+        return lower >= 4 ? "4-5" : lower + "-" + (lower + 1);
+    }
 
-        // Apply radius filter if coordinates provided
-        if (lat != null && lng != null && radius != null) {
-            results = filterByDistance(results, lat, lng, radius);
+    private static List<Document> facet(Document result, String name) {
+        if (result == null) return List.of();
+        List<Document> docs = result.getList(name, Document.class);
+        return docs != null ? docs : List.of();
+    }
+
+    @Timed("cafefinder.cafe.service")
+    public List<?> findNearby(double lat, double lng, double radiusKm, boolean sortByDistance, Integer limit) {
+        List<Cafe> allCafes = mongoTemplate.find(excludeMenu(new Query()), Cafe.class);
+        if (sortByDistance) {
+            return recordResults("findNearby", nearest(allCafes, lat, lng, radiusKm, limit));
+        }
+        return recordResults("findNearby", truncate(filterByDistance(allCafes, lat, lng, radiusKm), limit));
+    }
+
+    /**
+     * The closest cafes within the radius, nearest first, each with its distance.
+     * Selects through a bounded heap so only the kept results are ever ordered.
+     * Cafes are wrapped rather than modified, since they may be shared with the
+     * in-memory indexes.
+     */
+    private List<CafeDistance> nearest(List<Cafe> cafes, double lat, double lng, double radiusKm, Integer limit) {
+        int k = limit == null ? cafes.size() : Math.max(0, Math.min(limit, cafes.size()));
+        GeoDistance.RadiusFilter radius = GeoDistance.within(lat, lng, radiusKm);
+        NearestK heap = new NearestK(k);
+        for (int i = 0; i < cafes.size(); i++) {
+            Cafe cafe = cafes.get(i);
+            double distance = radius.distanceIfWithin(cafe.getLatitude(), cafe.getLongitude());
+            if (distance >= 0) {
+                heap.offer(i, distance);
+            }
         }
+        heap.sort();
 
+        // Selection may use estimates; the kept few get exact distances and final order
+        List<CafeDistance> results = new ArrayList<>(heap.size());
+        for (int i = 0; i < heap.size(); i++) {
+            Cafe cafe = cafes.get(heap.index(i));
+            results.add(new CafeDistance(cafe, radius.exactDistance(cafe.getLatitude(), cafe.getLongitude())));
+        }
+        results.sort(Comparator.comparingDouble(CafeDistance::getDistanceKm));
         return results;
     }
 
-    public List<Cafe> findNearby(double lat, double lng, double radiusKm) {
-        List<Cafe> allCafes = cafeRepo.findAll();
-        return filterByDistance(allCafes, lat, lng, radiusKm);
+    private static <T> List<T> truncate(List<T> results, Integer limit) {
+        if (limit == null || results.size() <= limit) return results;
+        return results.subList(0, Math.max(0, limit));
+    }
+
+    // Menus can be large and are served by their own endpoint, so list queries leave them out
+    private static Query excludeMenu(Query query) {
+        query.fields().exclude("menuItems");
+        return query;
+    }
+
+    // Result-set size per query, so oversized responses show up next to the timers
+    private <T extends List<?>> T recordResults(String query, T results) {
+        DistributionSummary.builder("cafefinder.cafe.results")
+                .tag("query", query)
+                .register(meterRegistry)
+                .record(results.size());
+        return results;
     }
 
     private List<Cafe> filterByDistance(List<Cafe> cafes, double lat, double lng, double radiusKm) {
+        GeoDistance.RadiusFilter radius = GeoDistance.within(lat, lng, radiusKm);
         return cafes.stream()
-                .filter(cafe -> {
-                    double distance = calculateDistance(lat, lng, cafe.getLatitude(), cafe.getLongitude());
-                    return distance <= radiusKm;
-                })
+                .filter(cafe -> radius.distanceIfWithin(cafe.getLatitude(), cafe.getLongitude()) >= 0)
                 .toList();
     }
 
-    private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        final int R = 6371; // Radius of the earth in km
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        return R * c;
-    }
+    @Timed("cafefinder.cafe.service")
+    public List<Cafe> getPopularCafes(int limit, String city) {
+        if (limit <= leaderboard.getCapacity()) {
+            return recordResults("getPopularCafes", leaderboard.top(city, limit));
+        }
 
-    public List<Cafe> getPopularCafes(int limit) {
+        // Larger pages than the leaderboard holds go to Mongo, still on the popularityScore index
         Query query = new Query();
-        query.with(Sort.by(Sort.Direction.DESC, "avgRating", "reviewsCount"));
+        if (city != null && !city.isBlank()) {
+            // Same exact, case-insensitive city match as the leaderboard, with the input quoted
+            query.addCriteria(Criteria.where("city").regex("^" + Pattern.quote(city.trim()) + "$", "i"));
+        }
+        query.with(Sort.by(Sort.Direction.DESC, "popularityScore", "reviewsCount"));
         query.limit(limit);
-        return mongoTemplate.find(query, Cafe.class);
+        return recordResults("getPopularCafes", mongoTemplate.find(query, Cafe.class));
     }
 
+    @Timed("cafefinder.cafe.service")
     public Cafe createCafe(Cafe cafe) {
+        cafe.setVersion(null); // always an insert
+        initializeNewCafe(cafe);
+        Cafe saved = cafeRepo.save(cafe);
+        events.publishEvent(new CafeChangedEvent(saved, CafeChangedEvent.Type.CREATED));
+        return saved;
+    }
+
+    // Server-managed fields of a cafe about to be inserted
+    public void initializeNewCafe(Cafe cafe) {
+        cafe.setDedupeKey(dedupeKey(cafe.getName(), cafe.getLatitude(), cafe.getLongitude()));
+        cafe.setEditVersion(0L);
         // Initialize ratings
         cafe.setAvgRating(0.0);
         cafe.setAvgCoffeeRating(0.0);
         cafe.setAvgTasteRating(0.0);
         cafe.setReviewsCount(0);
+        cafe.setRatingSum(0);
+        cafe.setCoffeeRatingSum(0);
+        cafe.setCoffeeRatingCount(0);
+        cafe.setTasteRatingSum(0);
+        cafe.setTasteRatingCount(0);
+        cafe.setPopularityScore(leaderboard.score(0.0, 0));
         cafe.setCurrentStatus("unknown");
-        return cafeRepo.save(cafe);
     }
 
-    public Cafe updateCafe(Cafe cafe) {
-        return cafeRepo.save(cafe);
+    /**
+     * Identity used to catch duplicate cafes: the name lowercased with punctuation
+     * dropped, plus coordinates rounded to 4 decimals (about 11 m).
+     */
+    public static String dedupeKey(String name, double latitude, double longitude) {
+        String normalized = name == null ? "" : name.toLowerCase(Locale.ROOT)
+                .replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+        return normalized + "|" + String.format(Locale.ROOT, "%.4f|%.4f", latitude, longitude);
+    }
+
+    /**
+     * Full replacement of the owner-editable fields. Written as a targeted $set so
+     * concurrent rating and busy-status updates are never overwritten. When the
+     * cafe carries an editVersion, the write only applies if it is still current.
+     *
+     * @throws DuplicateKeyException if the edit renames or moves the cafe onto another one
+     */
+    @Timed("cafefinder.cafe.service")
+    public Optional<Cafe> updateCafe(String id, Cafe cafe) {
+        BeanWrapper source = PropertyAccessorFactory.forBeanPropertyAccess(cafe);
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String field : EDITABLE_FIELDS) {
+            values.put(field, source.getPropertyValue(field));
+        }
+        return applyChanges(id, values, cafe.getEditVersion());
+    }
+
+    /**
+     * Partial update: only the fields present in the patch are written. An optional
+     * "editVersion" entry makes the update conditional on that version.
+     *
+     * @throws IllegalArgumentException if the patch names a field owners can't edit
+     * @throws OptimisticLockingFailureException if the editVersion is no longer current
+     * @throws DuplicateKeyException if the edit renames or moves the cafe onto another one
+     */
+    @Timed("cafefinder.cafe.service")
+    public Optional<Cafe> patchCafe(String id, Map<String, Object> patch) {
+        Map<String, Object> fields = new LinkedHashMap<>(patch);
+        Object version = fields.remove("editVersion");
+        for (String field : fields.keySet()) {
+            if (!EDITABLE_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Field cannot be patched: " + field);
+            }
+        }
+
+        // Bind through Jackson so values get the same types as a full Cafe body
+        BeanWrapper typed = PropertyAccessorFactory.forBeanPropertyAccess(objectMapper.convertValue(fields, Cafe.class));
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String field : fields.keySet()) {
+            values.put(field, typed.getPropertyValue(field));
+        }
+        Long expectedVersion = version == null ? null : Long.valueOf(version.toString());
+        return applyChanges(id, values, expectedVersion);
+    }
+
+    /**
+     * Follows renames and moves: sets the new dedupe key when the edit changes the
+     * cafe's identity. Cafes whose name and position stay the same keep their key,
+     * including the id-suffixed keys the migration gave pre-existing duplicates.
+     */
+    private void setDedupeKey(String id, Map<String, Object> values, Update update) {
+        if (!values.containsKey("name") && !values.containsKey("latitude") && !values.containsKey("longitude")) return;
+
+        Query query = new Query(Criteria.where("id").is(id));
+        query.fields().include("name", "latitude", "longitude");
+        Cafe current = mongoTemplate.findOne(query, Cafe.class);
+        if (current == null) return;
+
+        String name = values.containsKey("name") ? (String) values.get("name") : current.getName();
+        double latitude = values.get("latitude") instanceof Number
+                ? ((Number) values.get("latitude")).doubleValue() : current.getLatitude();
+        double longitude = values.get("longitude") instanceof Number
+                ? ((Number) values.get("longitude")).doubleValue() : current.getLongitude();
+        String key = dedupeKey(name, latitude, longitude);
+        if (!key.equals(dedupeKey(current.getName(), current.getLatitude(), current.getLongitude()))) {
+            update.set("dedupeKey", key);
+        }
+    }
+
+    // Only owner edits move editVersion; rating, busy-status, menu and claim writes leave it alone,
+    // so they never make an owner's next edit conflict
+    private Optional<Cafe> applyChanges(String id, Map<String, Object> values, Long expectedVersion) {
+        Criteria criteria = Criteria.where("id").is(id);
+        if (expectedVersion != null) {
+            criteria.and("editVersion").is(expectedVersion);
+        }
+        if (values.containsKey("hours")) {
+            @SuppressWarnings("unchecked")
+            Map<Integer, String> hours = (Map<Integer, String>) values.get("hours");
+            values.put("openIntervals", OpeningHours.compile(hours));
+        }
+        Update update = new Update();
+        values.forEach(update::set);
+        setDedupeKey(id, values, update);
+        update.inc("editVersion", 1);
+
+        // A rename or move onto another cafe's dedupe key fails here with DuplicateKeyException
+        Cafe updated = mongoTemplate.findAndModify(new Query(criteria), update,
+                FindAndModifyOptions.options().returnNew(true), Cafe.class);
+        if (updated == null) {
+            if (expectedVersion != null && cafeRepo.existsById(id)) {
+                throw new OptimisticLockingFailureException(
+                        "Cafe " + id + " was modified concurrently; expected editVersion " + expectedVersion);
+            }
+            return Optional.empty();
+        }
+        events.publishEvent(new CafeChangedEvent(updated, CafeChangedEvent.Type.UPDATED));
+        return Optional.of(updated);
     }
 
+    // Targeted $set of claim fields, so a claim decision never rewrites ratings or trips over concurrent $inc writes
+    @Timed("cafefinder.cafe.service")
+    public Optional<Cafe> updateClaim(String cafeId, Map<String, Object> values) {
+        Update update = new Update();
+        values.forEach(update::set);
+        Cafe updated = mongoTemplate.findAndModify(new Query(Criteria.where("id").is(cafeId)), update,
+                FindAndModifyOptions.options().returnNew(true), Cafe.class);
+        if (updated != null) {
+            events.publishEvent(new CafeChangedEvent(updated, CafeChangedEvent.Type.UPDATED));
+        }
+        return Optional.ofNullable(updated);
+    }
+
+    // Targeted $set of the live busy status, so it never rewrites the rest of the document
+    @Timed("cafefinder.cafe.service")
+    public void updateCurrentStatus(String cafeId, String currentStatus, Integer currentWaitTime) {
+        Update update = new Update()
+                .set("currentStatus", currentStatus)
+                .set("currentWaitTime", currentWaitTime);
+        Cafe updated = mongoTemplate.findAndModify(new Query(Criteria.where("id").is(cafeId)), update,
+                FindAndModifyOptions.options().returnNew(true), Cafe.class);
+        if (updated != null) {
+            events.publishEvent(new CafeChangedEvent(updated, CafeChangedEvent.Type.STATUS));
+        }
+    }
+
+    // Reads only the menu sub-document; empty when the cafe doesn't exist
+    @Timed("cafefinder.cafe.service")
+    public Optional<List<MenuItem>> getMenu(String cafeId) {
+        Query query = new Query(Criteria.where("id").is(cafeId));
+        query.fields().include("menuItems");
+        Cafe cafe = mongoTemplate.findOne(query, Cafe.class);
+        if (cafe == null) return Optional.empty();
+        return Optional.of(cafe.getMenuItems() != null ? cafe.getMenuItems() : List.of());
+    }
+
+    // $push a new item; empty when the cafe doesn't exist or already has an item with that name
+    @Timed("cafefinder.cafe.service")
+    public Optional<List<MenuItem>> addMenuItem(String cafeId, MenuItem item) {
+        Query query = new Query(Criteria.where("id").is(cafeId).and("menuItems.name").ne(item.getName()));
+        return modifyMenu(query, new Update().push("menuItems", item));
+    }
+
+    // $set a single item in place, matched by name
+    @Timed("cafefinder.cafe.service")
+    public Optional<List<MenuItem>> updateMenuItem(String cafeId, String name, MenuItem item) {
+        Query query = new Query(Criteria.where("id").is(cafeId).and("menuItems.name").is(name));
+        return modifyMenu(query, new Update().set("menuItems.$", item));
+    }
+
+    // $pull a single item, matched by name
+    @Timed("cafefinder.cafe.service")
+    public Optional<List<MenuItem>> removeMenuItem(String cafeId, String name) {
+        Query query = new Query(Criteria.where("id").is(cafeId).and("menuItems.name").is(name));
+        return modifyMenu(query, new Update().pull("menuItems", new Document("name", name)));
+    }
+
+    private Optional<List<MenuItem>> modifyMenu(Query query, Update update) {
+        Cafe updated = mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Cafe.class);
+        if (updated == null) return Optional.empty();
+        events.publishEvent(new CafeChangedEvent(updated, CafeChangedEvent.Type.UPDATED));
+        return Optional.of(updated.getMenuItems() != null ? updated.getMenuItems() : List.of());
+    }
+
+    @Timed("cafefinder.cafe.service")
+    public void deleteCafe(Cafe cafe) {
+        // By id: deleting the entity would check @Version, which every $inc and $set write moves
+        cafeRepo.deleteById(cafe.getId());
+        events.publishEvent(new CafeChangedEvent(cafe, CafeChangedEvent.Type.DELETED));
+    }
+
+    @Timed("cafefinder.cafe.service")
     public double computeAvgRating(String cafeId){
         List<Review> reviews = reviewRepo.findByCafeIdOrderByCreatedAtDesc(cafeId);
         if(reviews.isEmpty()) return 0.0;
         return reviews.stream().mapToInt(Review::getOverallRating).average().orElse(0.0);
     }
 
+    /**
+     * Applies a review moving between moderation states. Only transitions into or
+     * out of APPROVED touch the cafe; everything else (e.g. new PENDING reviews) is free.
+     */
+    public void applyStatusTransition(Review review, String fromStatus, String toStatus) {
+        boolean wasApproved = "APPROVED".equals(fromStatus);
+        boolean isApproved = "APPROVED".equals(toStatus);
+        if (wasApproved == isApproved) return;
+        applyRatingDelta(review.getCafeId(), RatingDelta.of(review, isApproved ? 1 : -1));
+    }
+
+    /**
+     * Adds a delta to the cafe's running totals with a single $inc, then refreshes the
+     * averages. The averages write is conditional on the totals it was computed from,
+     * so when deltas race the one applied last always wins. The review summary is
+     * incremented first, so it is current by the time the change event goes out.
+     */
+    @Timed("cafefinder.cafe.service")
+    public void applyRatingDelta(String cafeId, RatingDelta delta) {
+        if (cafeId == null || delta.isEmpty()) return;
+        reviewSummaries.apply(cafeId, delta);
+
+        Update increment = new Update()
+                .inc("reviewsCount", delta.getCount())
+                .inc("ratingSum", delta.getRatingSum())
+                .inc("coffeeRatingSum", delta.getCoffeeRatingSum())
+                .inc("coffeeRatingCount", delta.getCoffeeRatingCount())
+                .inc("tasteRatingSum", delta.getTasteRatingSum())
+                .inc("tasteRatingCount", delta.getTasteRatingCount());
+        Cafe updated = mongoTemplate.findAndModify(
+                new Query(Criteria.where("id").is(cafeId)), increment,
+                FindAndModifyOptions.options().returnNew(true), Cafe.class);
+        if (updated == null) return;
+
+        Query unchanged = new Query(Criteria.where("id").is(cafeId)
+                .and("reviewsCount").is(updated.getReviewsCount())
+                .and("ratingSum").is(updated.getRatingSum())
+                .and("coffeeRatingSum").is(updated.getCoffeeRatingSum())
+                .and("coffeeRatingCount").is(updated.getCoffeeRatingCount())
+                .and("tasteRatingSum").is(updated.getTasteRatingSum())
+                .and("tasteRatingCount").is(updated.getTasteRatingCount()));
+        if (mongoTemplate.updateFirst(unchanged, averagesOf(updated), Cafe.class).getMatchedCount() > 0) {
+            applyAverages(updated);
+            events.publishEvent(new CafeChangedEvent(updated, CafeChangedEvent.Type.RATINGS));
+        }
+    }
+
+    /**
+     * Full recompute from the cafe's approved reviews. Used to backfill totals and to
+     * repair a cafe after a concurrent moderation race; normal moderation uses deltas.
+     */
+    @Timed("cafefinder.cafe.service")
     public void updateCafeRatings(String cafeId) {
-        List<Review> reviews = reviewRepo.findByCafeIdOrderByCreatedAtDesc(cafeId);
-        if (reviews.isEmpty()) return;
-
-        double avgOverall = reviews.stream()
-                .mapToInt(Review::getOverallRating)
-                .average().orElse(0.0);
-
-        double avgCoffee = reviews.stream()
-                .filter(r -> r.getCoffeeRating() != null)
-                .mapToInt(Review::getCoffeeRating)
-                .average().orElse(0.0);
-
-        double avgTaste = reviews.stream()
-                .filter(r -> r.getTasteRating() != null)
-                .mapToInt(Review::getTasteRating)
-                .average().orElse(0.0);
-
-        cafeRepo.findById(cafeId).ifPresent(cafe -> {
-            cafe.setAvgRating(avgOverall);
-            cafe.setAvgCoffeeRating(avgCoffee);
-            cafe.setAvgTasteRating(avgTaste);
-            cafe.setReviewsCount(reviews.size());
-            cafeRepo.save(cafe);
-        });
+        List<Review> reviews = reviewRepo.findByCafeIdAndStatusOrderByCreatedAtDesc(cafeId, "APPROVED");
+        RatingDelta totals = new RatingDelta();
+        reviews.forEach(review -> totals.add(review, 1));
+        reviewSummaries.replace(cafeId, totals);
+
+        Cafe cafe = new Cafe();
+        cafe.setReviewsCount(totals.getCount());
+        cafe.setRatingSum(totals.getRatingSum());
+        cafe.setCoffeeRatingSum(totals.getCoffeeRatingSum());
+        cafe.setCoffeeRatingCount(totals.getCoffeeRatingCount());
+        cafe.setTasteRatingSum(totals.getTasteRatingSum());
+        cafe.setTasteRatingCount(totals.getTasteRatingCount());
+
+        Update update = averagesOf(cafe)
+                .set("reviewsCount", cafe.getReviewsCount())
+                .set("ratingSum", cafe.getRatingSum())
+                .set("coffeeRatingSum", cafe.getCoffeeRatingSum())
+                .set("coffeeRatingCount", cafe.getCoffeeRatingCount())
+                .set("tasteRatingSum", cafe.getTasteRatingSum())
+                .set("tasteRatingCount", cafe.getTasteRatingCount());
+        Cafe updated = mongoTemplate.findAndModify(new Query(Criteria.where("id").is(cafeId)), update,
+                FindAndModifyOptions.options().returnNew(true), Cafe.class);
+        if (updated != null) {
+            events.publishEvent(new CafeChangedEvent(updated, CafeChangedEvent.Type.RATINGS));
+        }
+    }
+
+    private Update averagesOf(Cafe totals) {
+        double avgRating = average(totals.getRatingSum(), totals.getReviewsCount());
+        return new Update()
+                .set("avgRating", avgRating)
+                .set("avgCoffeeRating", average(totals.getCoffeeRatingSum(), totals.getCoffeeRatingCount()))
+                .set("avgTasteRating", average(totals.getTasteRatingSum(), totals.getTasteRatingCount()))
+                .set("popularityScore", leaderboard.score(avgRating, totals.getReviewsCount()));
+    }
+
+    private void applyAverages(Cafe cafe) {
+        cafe.setAvgRating(average(cafe.getRatingSum(), cafe.getReviewsCount()));
+        cafe.setAvgCoffeeRating(average(cafe.getCoffeeRatingSum(), cafe.getCoffeeRatingCount()));
+        cafe.setAvgTasteRating(average(cafe.getTasteRatingSum(), cafe.getTasteRatingCount()));
+        cafe.setPopularityScore(leaderboard.score(cafe.getAvgRating(), cafe.getReviewsCount()));
+    }
+
+    private static double average(long sum, int count) {
+        return count > 0 ? (double) sum / count : 0.0;
     }
 }
@@ -0,0 +1,212 @@
+package com.cafefinder.app.service;
+
+import com.cafefinder.app.model.BusyEntry;
+import com.cafefinder.app.model.Cafe;
+import com.cafefinder.app.model.Review;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoCursorNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Streams the catalog as NDJSON, one {"type", "data"} line per document, in _id
+ * order per collection. Documents come off a Mongo cursor a batch at a time and
+ * are written straight to the response, so a slow client slows the cursor rather
+ * than buffering the catalog in memory.
+ *
+ * Every few hundred documents a {"type":"checkpoint","token"} line is written;
+ * passing that token back resumes the export right after the last document
+ * before it. The same position is used to reopen a cursor the server closed
+ * while a slow client was catching up.
+ */
+@Service
+public class CatalogExportService {
+    private static final Map<String, Export<?>> EXPORTS = new LinkedHashMap<>();
+    static {
+        EXPORTS.put("cafes", new Export<>("cafe", Cafe.class, Cafe::getId));
+        EXPORTS.put("reviews", new Export<>("review", Review.class, Review::getId));
+        EXPORTS.put("busy", new Export<>("busy", BusyEntry.class, BusyEntry::getId));
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final int checkpointEvery;
+    private final int cursorBatchSize;
+
+    public CatalogExportService(MongoTemplate mongoTemplate, ObjectMapper objectMapper,
+                                @Value("${cafefinder.export.checkpoint-every:500}") int checkpointEvery,
+                                @Value("${cafefinder.export.cursor-batch-size:200}") int cursorBatchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.checkpointEvery = checkpointEvery;
+        this.cursorBatchSize = cursorBatchSize;
+    }
+
+    public static List<String> collections() {
+        return new ArrayList<>(EXPORTS.keySet());
+    }
+
+    /**
+     * Checks the request before the response starts streaming.
+     *
+     * @throws IllegalArgumentException for an unknown collection or malformed token
+     */
+    public void validate(List<String> collections, String resumeToken) {
+        for (String collection : collections) {
+            if (!EXPORTS.containsKey(collection)) {
+                throw new IllegalArgumentException("Unknown collection: " + collection + "; expected one of " + EXPORTS.keySet());
+            }
+        }
+        if (resumeToken != null) {
+            Checkpoint checkpoint = Checkpoint.decode(resumeToken);
+            if (!collections.contains(checkpoint.collection)) {
+                throw new IllegalArgumentException("Resume token is for a collection not being exported");
+            }
+        }
+    }
+
+    public void export(List<String> collections, String resumeToken, OutputStream out) throws IOException {
+        Checkpoint resume = resumeToken == null ? null : Checkpoint.decode(resumeToken);
+        // The generator must not close the (gzip) stream between lines
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            json.setRootValueSeparator(null);
+            boolean skipping = resume != null;
+            for (String collection : EXPORTS.keySet()) {
+                if (!collections.contains(collection)) continue;
+                String afterId = null;
+                if (skipping) {
+                    if (!collection.equals(resume.collection)) continue; // finished before the checkpoint
+                    afterId = resume.lastId;
+                    skipping = false;
+                }
+                write(collection, EXPORTS.get(collection), afterId, json);
+            }
+            json.writeStartObject();
+            json.writeStringField("type", "end");
+            json.writeEndObject();
+            newline(json);
+            json.flush();
+        }
+    }
+
+    private <T> void write(String collection, Export<T> export, String afterId, JsonGenerator json)
+            throws IOException {
+        long count = 0;
+        String lastId = null;
+        while (true) {
+            try (Stream<T> documents = mongoTemplate.stream(query(lastId != null ? lastId : afterId), export.type)) {
+                for (T document : (Iterable<T>) documents::iterator) {
+                    json.writeStartObject();
+                    json.writeStringField("type", export.name);
+                    json.writeObjectField("data", document);
+                    json.writeEndObject();
+                    newline(json);
+
+                    lastId = export.id.apply(document);
+                    if (++count % checkpointEvery == 0) {
+                        checkpoint(new Checkpoint(collection, lastId), json);
+                    }
+                }
+                break;
+            } catch (RuntimeException e) {
+                // A client slower than the server's idle cursor timeout (10 minutes by default) loses
+                // the cursor part-way; reopen it right after the last document written
+                if (!cursorLost(e)) throw e;
+            }
+        }
+        if (lastId != null && count % checkpointEvery != 0) {
+            checkpoint(new Checkpoint(collection, lastId), json);
+        }
+    }
+
+    private Query query(String afterId) {
+        Query query = new Query();
+        if (afterId != null) {
+            query.addCriteria(Criteria.where("id").gt(afterId));
+        }
+        query.with(Sort.by(Sort.Direction.ASC, "id"));
+        query.cursorBatchSize(cursorBatchSize);
+        return query;
+    }
+
+    // Spring translates the driver exception, so it may arrive as the cause
+    private static boolean cursorLost(RuntimeException e) {
+        return e instanceof MongoCursorNotFoundException || e.getCause() instanceof MongoCursorNotFoundException;
+    }
+
+    private static void checkpoint(Checkpoint checkpoint, JsonGenerator json) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("type", "checkpoint");
+        json.writeStringField("token", checkpoint.encode());
+        json.writeEndObject();
+        newline(json);
+        // The only flush: passed through to the gzip stream as a sync flush, so everything
+        // up to the checkpoint reaches the client without flushing after every document
+        json.flush();
+    }
+
+    // Through the generator's own buffer, so lines don't force a flush of the output
+    private static void newline(JsonGenerator json) throws IOException {
+        json.writeRaw('\n');
+    }
+
+    private static final class Export<T> {
+        private final String name;
+        private final Class<T> type;
+        private final Function<T, String> id;
+
+        Export(String name, Class<T> type, Function<T, String> id) {
+            this.name = name;
+            this.type = type;
+            this.id = id;
+        }
+    }
+
+    // Opaque resume position: the collection and the last _id written from it
+    private static final class Checkpoint {
+        private final String collection;
+        private final String lastId;
+
+        Checkpoint(String collection, String lastId) {
+            this.collection = collection;
+            this.lastId = lastId;
+        }
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((collection + ":" + lastId).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Checkpoint decode(String token) {
+            String decoded;
+            try {
+                decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Malformed resume token");
+            }
+            int separator = decoded.indexOf(':');
+            if (separator <= 0 || separator == decoded.length() - 1 || !EXPORTS.containsKey(decoded.substring(0, separator))) {
+                throw new IllegalArgumentException("Malformed resume token");
+            }
+            return new Checkpoint(decoded.substring(0, separator), decoded.substring(separator + 1));
+        }
+    }
+}
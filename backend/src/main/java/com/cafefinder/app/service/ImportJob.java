@@ -0,0 +1,94 @@
+package com.cafefinder.app.service;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one bulk cafe import. Counters are updated by the import worker
+ * and read by status requests while the import runs.
+ */
+public class ImportJob {
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private final String id;
+    private final String format;
+    private final int maxErrors;
+    private final Instant createdAt = Instant.now();
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant finishedAt;
+    private volatile String failure;
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong inserted = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong invalid = new AtomicLong();
+    private final List<RowError> errors = new CopyOnWriteArrayList<>();
+
+    public ImportJob(String id, String format, int maxErrors) {
+        this.id = id;
+        this.format = format;
+        this.maxErrors = maxErrors;
+    }
+
+    public String getId() { return id; }
+    public String getFormat() { return format; }
+    public Instant getCreatedAt() { return createdAt; }
+    public Status getStatus() { return status; }
+    public Instant getFinishedAt() { return finishedAt; }
+    public String getFailure() { return failure; }
+    public long getRowsRead() { return rowsRead.get(); }
+    public long getInserted() { return inserted.get(); }
+    public long getDuplicates() { return duplicates.get(); }
+    public long getInvalid() { return invalid.get(); }
+
+    // Only the first maxErrors row errors are kept; the counters cover the rest
+    public List<RowError> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    void start() { status = Status.RUNNING; }
+
+    void complete() {
+        status = Status.COMPLETED;
+        finishedAt = Instant.now();
+    }
+
+    void fail(String message) {
+        failure = message;
+        status = Status.FAILED;
+        finishedAt = Instant.now();
+    }
+
+    void rowRead() { rowsRead.incrementAndGet(); }
+    void inserted(long count) { inserted.addAndGet(count); }
+
+    void duplicate(long row, String message) {
+        duplicates.incrementAndGet();
+        addError(row, message);
+    }
+
+    void invalid(long row, String message) {
+        invalid.incrementAndGet();
+        addError(row, message);
+    }
+
+    // Only the import worker adds errors, so the size check can't race
+    private void addError(long row, String message) {
+        if (errors.size() < maxErrors) errors.add(new RowError(row, message));
+    }
+
+    public static class RowError {
+        private final long row; // 1-based record number in the upload
+        private final String message;
+
+        public RowError(long row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        public long getRow() { return row; }
+        public String getMessage() { return message; }
+    }
+}
@@ -0,0 +1,137 @@
+package com.cafefinder.app.service;
+
+import com.cafefinder.app.dto.CafeMarker;
+import com.cafefinder.app.dto.MapView;
+import com.cafefinder.app.dto.MarkerCluster;
+import io.micrometer.core.annotation.Timed;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Map viewport queries. At street-level zooms every cafe in the box comes back as
+ * a lightweight marker; zoomed out, cafes are grouped into a grid in Mongo and
+ * each cell with more than one cafe comes back as a cluster at its centroid.
+ */
+@Service
+public class MapService {
+    // Grid cells per 256px map tile width, so clusters are roughly 64px apart on screen
+    private static final int CELLS_PER_TILE = 4;
+
+    private final MongoTemplate mongoTemplate;
+    private final int clusterBelowZoom;
+    private final int maxMarkers;
+
+    public MapService(MongoTemplate mongoTemplate,
+                      @Value("${cafefinder.map.cluster-below-zoom:13}") int clusterBelowZoom,
+                      @Value("${cafefinder.map.max-markers:2000}") int maxMarkers) {
+        this.mongoTemplate = mongoTemplate;
+        this.clusterBelowZoom = clusterBelowZoom;
+        this.maxMarkers = maxMarkers;
+    }
+
+    /**
+     * Markers and clusters inside a bounding box. A box whose minLng is greater than
+     * its maxLng crosses the antimeridian.
+     *
+     * @throws IllegalArgumentException if the box or zoom is out of range
+     */
+    @Timed("cafefinder.map.within")
+    public MapView within(double minLng, double minLat, double maxLng, double maxLat, int zoom) {
+        // Every comparison with NaN is false, so rule non-finite values out first
+        if (!Double.isFinite(minLng) || !Double.isFinite(minLat) || !Double.isFinite(maxLng) || !Double.isFinite(maxLat)
+                || minLat < -90 || maxLat > 90 || minLat > maxLat
+                || minLng < -180 || minLng > 180 || maxLng < -180 || maxLng > 180) {
+            throw new IllegalArgumentException("bbox must be minLng,minLat,maxLng,maxLat in degrees");
+        }
+        if (zoom < 0 || zoom > 22) {
+            throw new IllegalArgumentException("zoom must be between 0 and 22");
+        }
+
+        Criteria box = boxCriteria(minLng, minLat, maxLng, maxLat);
+        return zoom >= clusterBelowZoom ? markers(box) : clusters(box, zoom);
+    }
+
+    private MapView markers(Criteria box) {
+        Query query = new Query(box).limit(maxMarkers + 1);
+        query.fields().include("name", "latitude", "longitude", "avgRating", "priceRange");
+        List<Document> docs = mongoTemplate.find(query, Document.class, "cafes");
+
+        boolean truncated = docs.size() > maxMarkers;
+        List<CafeMarker> markers = new ArrayList<>(Math.min(docs.size(), maxMarkers));
+        for (Document doc : docs.subList(0, Math.min(docs.size(), maxMarkers))) {
+            markers.add(marker(doc));
+        }
+        return new MapView(markers, List.of(), truncated);
+    }
+
+    private MapView clusters(Criteria box, int zoom) {
+        double cellDegrees = 360.0 / (1L << zoom) / CELLS_PER_TILE;
+
+        // Group by grid cell; single-cafe cells keep enough fields to become markers
+        AggregationOperation group = context -> new Document("$group", new Document("_id", new Document()
+                    .append("x", floorDiv("$longitude", cellDegrees))
+                    .append("y", floorDiv("$latitude", cellDegrees)))
+                .append("count", new Document("$sum", 1))
+                .append("latitude", new Document("$avg", "$latitude"))
+                .append("longitude", new Document("$avg", "$longitude"))
+                .append("cafeId", new Document("$first", "$_id"))
+                .append("name", new Document("$first", "$name"))
+                .append("avgRating", new Document("$first", "$avgRating"))
+                .append("priceRange", new Document("$first", "$priceRange")));
+        List<Document> cells = mongoTemplate.aggregate(
+                Aggregation.newAggregation(Aggregation.match(box), group), "cafes", Document.class).getMappedResults();
+
+        List<CafeMarker> markers = new ArrayList<>();
+        List<MarkerCluster> clusters = new ArrayList<>();
+        for (Document cell : cells) {
+            long count = ((Number) cell.get("count")).longValue();
+            if (count == 1) {
+                markers.add(marker(new Document("_id", cell.get("cafeId"))
+                        .append("name", cell.get("name"))
+                        .append("latitude", cell.get("latitude"))
+                        .append("longitude", cell.get("longitude"))
+                        .append("avgRating", cell.get("avgRating"))
+                        .append("priceRange", cell.get("priceRange"))));
+            } else {
+                clusters.add(new MarkerCluster(number(cell, "latitude"), number(cell, "longitude"), count));
+            }
+        }
+        return new MapView(markers, clusters, false);
+    }
+
+    private static Criteria boxCriteria(double minLng, double minLat, double maxLng, double maxLat) {
+        Criteria latitude = Criteria.where("latitude").gte(minLat).lte(maxLat);
+        if (minLng <= maxLng) {
+            return new Criteria().andOperator(latitude, Criteria.where("longitude").gte(minLng).lte(maxLng));
+        }
+        // Crosses the antimeridian: two longitude ranges
+        return new Criteria().andOperator(latitude, new Criteria().orOperator(
+                Criteria.where("longitude").gte(minLng).lte(180),
+                Criteria.where("longitude").gte(-180).lte(maxLng)));
+    }
+
+    private static Document floorDiv(String field, double cellDegrees) {
+        return new Document("$floor", new Document("$divide", Arrays.asList(field, cellDegrees)));
+    }
+
+    private static CafeMarker marker(Document doc) {
+        return new CafeMarker(String.valueOf(doc.get("_id")), doc.getString("name"),
+                number(doc, "latitude"), number(doc, "longitude"), number(doc, "avgRating"),
+                doc.getString("priceRange"));
+    }
+
+    private static double number(Document doc, String field) {
+        Object value = doc.get(field);
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
+    }
+}
@@ -0,0 +1,177 @@
+package com.cafefinder.app.service;
+
+import com.cafefinder.app.dto.ModerationPage;
+import com.cafefinder.app.model.Review;
+import com.mongodb.bulk.BulkWriteResult;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Admin moderation queue. Pages are keyset-paginated on (createdAt, id) so deep
+ * pages cost the same as the first one, using the status_createdAt index.
+ */
+@Service
+public class ModerationService {
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private final MongoTemplate mongoTemplate;
+    private final ReviewStatsService reviewStatsService;
+    private final CafeService cafeService;
+
+    public ModerationService(MongoTemplate mongoTemplate, ReviewStatsService reviewStatsService,
+                             CafeService cafeService) {
+        this.mongoTemplate = mongoTemplate;
+        this.reviewStatsService = reviewStatsService;
+        this.cafeService = cafeService;
+    }
+
+    @Timed("cafefinder.moderation.service")
+    public ModerationPage getQueue(String status, String cafeId, String userId, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        Criteria criteria = Criteria.where("status").is(status);
+        if (cafeId != null && !cafeId.isBlank()) {
+            criteria.and("cafeId").is(cafeId);
+        }
+        if (userId != null && !userId.isBlank()) {
+            criteria.and("userId").is(userId);
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            Cursor after = Cursor.parse(cursor);
+            criteria.orOperator(
+                Criteria.where("createdAt").gt(after.createdAt),
+                Criteria.where("createdAt").is(after.createdAt).and("id").gt(after.id)
+            );
+        }
+
+        Query query = new Query(criteria)
+            .with(Sort.by(Sort.Direction.ASC, "createdAt", "id"))
+            .limit(pageSize + 1);
+        List<Review> reviews = mongoTemplate.find(query, Review.class);
+
+        String nextCursor = null;
+        if (reviews.size() > pageSize) {
+            reviews = reviews.subList(0, pageSize);
+            Review last = reviews.get(pageSize - 1);
+            nextCursor = Cursor.format(last);
+        }
+        return new ModerationPage(reviews, nextCursor);
+    }
+
+    /**
+     * Sets a single review's status. The previous document comes back from the same
+     * atomic findAndModify, so the cafe rating transition is exact.
+     */
+    @Timed("cafefinder.moderation.service")
+    public Optional<Review> moderate(String reviewId, String status, String adminNotes, String adminId) {
+        Review previous = mongoTemplate.findAndModify(
+            new Query(Criteria.where("id").is(reviewId)),
+            moderationUpdate(status, adminNotes, adminId),
+            FindAndModifyOptions.options().returnNew(false),
+            Review.class);
+        if (previous == null) return Optional.empty();
+
+        cafeService.applyStatusTransition(previous, previous.getStatus(), status);
+        reviewStatsService.invalidate();
+
+        previous.setStatus(status);
+        previous.setAdminId(adminId);
+        previous.setAdminNotes(adminNotes);
+        return Optional.of(previous);
+    }
+
+    /**
+     * Moderates many reviews in one unordered bulk write. Each update is guarded by the
+     * status read just before, and the per-cafe rating deltas are folded together. If a
+     * concurrent moderation wins a race, the affected cafes are recomputed instead.
+     */
+    @Timed("cafefinder.moderation.service")
+    public Map<String, Object> moderateAll(List<String> reviewIds, String status, String adminNotes, String adminId) {
+        Query current = new Query(Criteria.where("id").in(reviewIds).and("status").ne(status));
+        current.fields().include("cafeId", "status", "overallRating", "coffeeRating", "tasteRating",
+                "ambianceRating", "serviceRating", "valueRating", "wifi", "seating", "workFriendly",
+                "bathrooms", "petFriendly", "waitTime");
+        List<Review> changing = mongoTemplate.find(current, Review.class);
+
+        int modified = 0;
+        if (!changing.isEmpty()) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Review.class);
+            Update update = moderationUpdate(status, adminNotes, adminId);
+            Map<String, RatingDelta> deltas = new HashMap<>();
+            for (Review review : changing) {
+                bulk.updateOne(new Query(Criteria.where("id").is(review.getId()).and("status").is(review.getStatus())), update);
+
+                boolean wasApproved = "APPROVED".equals(review.getStatus());
+                boolean isApproved = "APPROVED".equals(status);
+                if (wasApproved != isApproved && review.getCafeId() != null) {
+                    deltas.computeIfAbsent(review.getCafeId(), id -> new RatingDelta()).add(review, isApproved ? 1 : -1);
+                }
+            }
+
+            BulkWriteResult result = bulk.execute();
+            modified = result.getModifiedCount();
+            if (modified == changing.size()) {
+                deltas.forEach(cafeService::applyRatingDelta);
+            } else {
+                deltas.keySet().forEach(cafeService::updateCafeRatings);
+            }
+            reviewStatsService.invalidate();
+        }
+
+        return Map.of(
+            "requested", reviewIds.size(),
+            "modified", modified,
+            "status", status
+        );
+    }
+
+    private static Update moderationUpdate(String status, String adminNotes, String adminId) {
+        return new Update()
+            .set("status", status)
+            .set("adminId", adminId)
+            .set("adminNotes", adminNotes)
+            .set("reviewedAt", Instant.now());
+    }
+
+    // Opaque page cursor: "<createdAt epoch millis>_<review id>"
+    private static final class Cursor {
+        private final Instant createdAt;
+        private final String id;
+
+        private Cursor(Instant createdAt, String id) {
+            this.createdAt = createdAt;
+            this.id = id;
+        }
+
+        static String format(Review review) {
+            Instant createdAt = review.getCreatedAt() != null ? review.getCreatedAt() : Instant.EPOCH;
+            return createdAt.toEpochMilli() + "_" + review.getId();
+        }
+
+        static Cursor parse(String cursor) {
+            int separator = cursor.indexOf('_');
+            if (separator <= 0 || separator == cursor.length() - 1) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            try {
+                long millis = Long.parseLong(cursor.substring(0, separator));
+                return new Cursor(Instant.ofEpochMilli(millis), cursor.substring(separator + 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.cafefinder.app.service;
+
+import com.cafefinder.app.model.Cafe;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory top-K popular cafes, globally and per city, ranked by a Bayesian-weighted
+ * rating so cafes with one or two reviews don't dominate:
+ * <pre>score = (priorWeight * priorMean + reviewsCount * avgRating) / (priorWeight + reviewsCount)</pre>
+ * With a prior weight of 0 the score is the plain average rating.
+ *
+ * Boards are loaded lazily from the popularityScore index and then kept current
+ * from CafeChangedEvents. A board that loses a member it can't replace from memory
+ * is marked stale and reloaded on its next read. City boards are kept for the most
+ * recently requested cities only, so arbitrary ?city= values can't grow them without bound.
+ */
+@Component
+public class PopularityLeaderboard {
+    private static final Comparator<Cafe> RANKING = Comparator
+            .comparingDouble(Cafe::getPopularityScore).reversed()
+            .thenComparing(Comparator.comparingInt(Cafe::getReviewsCount).reversed())
+            .thenComparing(Cafe::getId);
+
+    private final MongoTemplate mongoTemplate;
+    private final double priorMean;
+    private final double priorWeight;
+    private final int capacity;
+    private final int maxCities;
+
+    private final Board global = new Board(null);
+    private final ReentrantLock citiesLock = new ReentrantLock();
+    private final LinkedHashMap<String, Board> byCity = new LinkedHashMap<String, Board>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Board> eldest) {
+            return size() > maxCities;
+        }
+    };
+
+    public PopularityLeaderboard(MongoTemplate mongoTemplate, MeterRegistry meterRegistry,
+                                 @Value("${cafefinder.popular.prior-mean:3.5}") double priorMean,
+                                 @Value("${cafefinder.popular.prior-weight:5}") double priorWeight,
+                                 @Value("${cafefinder.popular.capacity:50}") int capacity,
+                                 @Value("${cafefinder.popular.max-cities:200}") int maxCities) {
+        this.mongoTemplate = mongoTemplate;
+        this.priorMean = priorMean;
+        this.priorWeight = priorWeight;
+        this.capacity = capacity;
+        this.maxCities = maxCities;
+
+        Gauge.builder("cafefinder.leaderboard.size", global, Board::size)
+                .tag("board", "global")
+                .register(meterRegistry);
+        Gauge.builder("cafefinder.leaderboard.cities", this, PopularityLeaderboard::cityCount)
+                .register(meterRegistry);
+    }
+
+    public double score(double avgRating, int reviewsCount) {
+        if (priorWeight <= 0) return avgRating;
+        return (priorWeight * priorMean + reviewsCount * avgRating) / (priorWeight + reviewsCount);
+    }
+
+    public double getPriorMean() { return priorMean; }
+    public double getPriorWeight() { return priorWeight; }
+    public int getCapacity() { return capacity; }
+
+    // Top cafes overall, or within a city when one is given; limit must not exceed capacity
+    public List<Cafe> top(String city, int limit) {
+        Board board = city == null || city.isBlank() ? global : cityBoard(cityKey(city));
+        return board.top(limit);
+    }
+
+    @EventListener
+    public void onCafeChanged(CafeChangedEvent event) {
+        Cafe cafe = event.getCafe();
+        boolean deleted = event.getType() == CafeChangedEvent.Type.DELETED;
+        global.offer(cafe, deleted);
+        for (Board board : cityBoards()) {
+            board.offer(cafe, deleted);
+        }
+    }
+
+    private Board cityBoard(String key) {
+        citiesLock.lock();
+        try {
+            return byCity.computeIfAbsent(key, Board::new);
+        } finally {
+            citiesLock.unlock();
+        }
+    }
+
+    private List<Board> cityBoards() {
+        citiesLock.lock();
+        try {
+            return new ArrayList<>(byCity.values());
+        } finally {
+            citiesLock.unlock();
+        }
+    }
+
+    private int cityCount() {
+        citiesLock.lock();
+        try {
+            return byCity.size();
+        } finally {
+            citiesLock.unlock();
+        }
+    }
+
+    private static String cityKey(String city) {
+        return city.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private final class Board {
+        private final String city; // null for the global board
+        private final ReentrantLock lock = new ReentrantLock();
+        private final TreeSet<Cafe> ranking = new TreeSet<>(RANKING);
+        private final Map<String, Cafe> members = new HashMap<>();
+        private boolean loaded;
+        private boolean complete; // true when every qualifying cafe fits on the board
+        private boolean stale;
+
+        Board(String city) {
+            this.city = city;
+        }
+
+        int size() {
+            return members.size();
+        }
+
+        List<Cafe> top(int limit) {
+            lock.lock();
+            try {
+                if (!loaded || stale) load();
+                List<Cafe> result = new ArrayList<>(Math.min(limit, ranking.size()));
+                Iterator<Cafe> it = ranking.iterator();
+                while (it.hasNext() && result.size() < limit) {
+                    result.add(it.next());
+                }
+                return result;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void offer(Cafe cafe, boolean deleted) {
+            lock.lock();
+            try {
+                if (!loaded || stale) return; // the next read reloads from Mongo anyway
+
+                Cafe previous = members.remove(cafe.getId());
+                if (previous != null) ranking.remove(previous);
+
+                boolean qualifies = !deleted && matchesCity(cafe);
+                if (qualifies && ranking.size() < capacity && complete) {
+                    add(cafe);
+                } else if (qualifies && ranking.size() == capacity && RANKING.compare(cafe, ranking.last()) < 0) {
+                    add(cafe);
+                    Cafe evicted = ranking.pollLast();
+                    members.remove(evicted.getId());
+                    complete = false;
+                } else {
+                    // A qualifying cafe left off the board means the board no longer holds them all
+                    if (qualifies) complete = false;
+                    if (previous != null && !complete) {
+                        // Lost a member and the best outsider isn't in memory
+                        stale = true;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void add(Cafe cafe) {
+            ranking.add(cafe);
+            members.put(cafe.getId(), cafe);
+        }
+
+        private boolean matchesCity(Cafe cafe) {
+            return city == null || (cafe.getCity() != null && cityKey(cafe.getCity()).equals(city));
+        }
+
+        private void load() {
+            Query query = new Query();
+            if (city != null) {
+                query.addCriteria(Criteria.where("city").regex("^" + Pattern.quote(city) + "$", "i"));
+            }
+            query.with(Sort.by(Sort.Order.desc("popularityScore"), Sort.Order.desc("reviewsCount"), Sort.Order.asc("id")));
+            query.limit(capacity);
+            List<Cafe> cafes = mongoTemplate.find(query, Cafe.class);
+
+            ranking.clear();
+            members.clear();
+            cafes.forEach(this::add);
+            complete = cafes.size() < capacity;
+            loaded = true;
+            stale = false;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.cafefinder.app.service;
+
+import com.cafefinder.app.model.Review;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Change to a cafe's rating totals caused by reviews entering (+1) or leaving (-1)
+ * the approved set. Several reviews for the same cafe can be folded into one delta.
+ *
+ * Alongside the cafe totals it carries the review summary tallies: a star histogram
+ * per rating dimension, yes/no amenity confirmations and reported wait times.
+ */
+public class RatingDelta {
+    private int count;
+    private long ratingSum;
+    private long coffeeRatingSum;
+    private int coffeeRatingCount;
+    private long tasteRatingSum;
+    private int tasteRatingCount;
+    private final Map<String, Long> tallies = new TreeMap<>(); // by summary field path, e.g. "histograms.coffee.4"
+    private long waitTimeSum;
+    private int waitTimeCount;
+
+    public static RatingDelta of(Review review, int sign) {
+        return new RatingDelta().add(review, sign);
+    }
+
+    public RatingDelta add(Review review, int sign) {
+        count += sign;
+        ratingSum += (long) sign * review.getOverallRating();
+        if (review.getCoffeeRating() != null) {
+            coffeeRatingSum += (long) sign * review.getCoffeeRating();
+            coffeeRatingCount += sign;
+        }
+        if (review.getTasteRating() != null) {
+            tasteRatingSum += (long) sign * review.getTasteRating();
+            tasteRatingCount += sign;
+        }
+
+        rate("overall", review.getOverallRating(), sign);
+        rate("coffee", review.getCoffeeRating(), sign);
+        rate("taste", review.getTasteRating(), sign);
+        rate("ambiance", review.getAmbianceRating(), sign);
+        rate("service", review.getServiceRating(), sign);
+        rate("value", review.getValueRating(), sign);
+        confirm("wifi", review.getWifi(), sign);
+        confirm("seating", review.getSeating(), sign);
+        confirm("workFriendly", review.getWorkFriendly(), sign);
+        confirm("bathrooms", review.getBathrooms(), sign);
+        confirm("petFriendly", review.getPetFriendly(), sign);
+        if (review.getWaitTime() != null && review.getWaitTime() >= 0) {
+            waitTimeSum += (long) sign * review.getWaitTime();
+            waitTimeCount += sign;
+        }
+        return this;
+    }
+
+    private void rate(String dimension, Integer stars, int sign) {
+        // Out-of-range ratings are left out of both the add and the matching remove
+        if (stars == null || stars < 1 || stars > 5) return;
+        tallies.merge("histograms." + dimension + "." + stars, (long) sign, Long::sum);
+    }
+
+    private void confirm(String amenity, Boolean value, int sign) {
+        if (value == null) return;
+        tallies.merge("amenities." + amenity + "." + (value ? "yes" : "no"), (long) sign, Long::sum);
+    }
+
+    public boolean isEmpty() {
+        return count == 0 && ratingSum == 0 && coffeeRatingSum == 0 && coffeeRatingCount == 0
+                && tasteRatingSum == 0 && tasteRatingCount == 0
+                && waitTimeSum == 0 && waitTimeCount == 0
+                && tallies.values().stream().allMatch(n -> n == 0);
+    }
+
+    public int getCount() { return count; }
+    public long getRatingSum() { return ratingSum; }
+    public long getCoffeeRatingSum() { return coffeeRatingSum; }
+    public int getCoffeeRatingCount() { return coffeeRatingCount; }
+    public long getTasteRatingSum() { return tasteRatingSum; }
+    public int getTasteRatingCount() { return tasteRatingCount; }
+    public Map<String, Long> getTallies() { return Collections.unmodifiableMap(tallies); }
+    public long getWaitTimeSum() { return waitTimeSum; }
+    public int getWaitTimeCount() { return waitTimeCount; }
+}
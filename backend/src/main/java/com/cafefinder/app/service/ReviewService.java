@@ -0,0 +1,121 @@
+package com.cafefinder.app.service;
+
+import com.cafefinder.app.model.Review;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Author-side review writes. Each one touches only the fields it owns and reads the
+ * previous document from the same atomic write, so it can't undo a concurrent
+ * moderation decision and the cafe rating delta is taken from what was replaced.
+ */
+@Service
+public class ReviewService {
+    private final MongoTemplate mongoTemplate;
+    private final CafeService cafeService;
+
+    public ReviewService(MongoTemplate mongoTemplate, CafeService cafeService) {
+        this.mongoTemplate = mongoTemplate;
+        this.cafeService = cafeService;
+    }
+
+    /**
+     * Applies the author's edit; empty when the review doesn't exist or isn't theirs.
+     * The write is guarded by the status it was read with, and retried if a moderator
+     * changed it in between, so the delta always matches the status that was replaced.
+     */
+    @Timed("cafefinder.review.service")
+    public Optional<Review> update(String id, String userId, String username, Review edit) {
+        while (true) {
+            Review current = mongoTemplate.findOne(new Query(Criteria.where("id").is(id).and("userId").is(userId)), Review.class);
+            if (current == null) return Optional.empty();
+
+            Instant now = Instant.now();
+            Criteria unchanged = Criteria.where("id").is(id).and("userId").is(userId).and("status").is(current.getStatus());
+            Review previous = mongoTemplate.findAndModify(new Query(unchanged), editUpdate(username, edit, now),
+                    FindAndModifyOptions.options().returnNew(false), Review.class);
+            if (previous == null) continue;
+
+            Review updated = applyEdit(previous, username, edit, now);
+            if ("APPROVED".equals(previous.getStatus())) {
+                cafeService.applyRatingDelta(previous.getCafeId(),
+                        RatingDelta.of(previous, -1).add(updated, 1));
+            }
+            return Optional.of(updated);
+        }
+    }
+
+    /** Removes the review and backs it out of the cafe totals using the status it was removed with. */
+    @Timed("cafefinder.review.service")
+    public Optional<Review> delete(String id, String userId) {
+        Criteria criteria = Criteria.where("id").is(id);
+        if (userId != null) criteria.and("userId").is(userId);
+        Review removed = mongoTemplate.findAndRemove(new Query(criteria), Review.class);
+        if (removed == null) return Optional.empty();
+
+        cafeService.applyStatusTransition(removed, removed.getStatus(), null);
+        return Optional.of(removed);
+    }
+
+    @Timed("cafefinder.review.service")
+    public Optional<Review> increment(String id, String counter) {
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                new Query(Criteria.where("id").is(id)), new Update().inc(counter, 1),
+                FindAndModifyOptions.options().returnNew(true), Review.class));
+    }
+
+    // Everything the author may change; ids, counters and moderation state are left alone
+    private static Update editUpdate(String username, Review edit, Instant now) {
+        return new Update()
+                .set("username", username)
+                .set("overallRating", edit.getOverallRating())
+                .set("coffeeRating", edit.getCoffeeRating())
+                .set("tasteRating", edit.getTasteRating())
+                .set("ambianceRating", edit.getAmbianceRating())
+                .set("serviceRating", edit.getServiceRating())
+                .set("valueRating", edit.getValueRating())
+                .set("text", edit.getText())
+                .set("tasteNotes", edit.getTasteNotes())
+                .set("photos", edit.getPhotos())
+                .set("wifi", edit.getWifi())
+                .set("seating", edit.getSeating())
+                .set("workFriendly", edit.getWorkFriendly())
+                .set("bathrooms", edit.getBathrooms())
+                .set("petFriendly", edit.getPetFriendly())
+                .set("parking", edit.getParking())
+                .set("priceRange", edit.getPriceRange())
+                .set("waitTime", edit.getWaitTime())
+                .set("updatedAt", now);
+    }
+
+    private static Review applyEdit(Review review, String username, Review edit, Instant now) {
+        review.setUsername(username);
+        review.setOverallRating(edit.getOverallRating());
+        review.setCoffeeRating(edit.getCoffeeRating());
+        review.setTasteRating(edit.getTasteRating());
+        review.setAmbianceRating(edit.getAmbianceRating());
+        review.setServiceRating(edit.getServiceRating());
+        review.setValueRating(edit.getValueRating());
+        review.setText(edit.getText());
+        review.setTasteNotes(edit.getTasteNotes());
+        review.setPhotos(edit.getPhotos());
+        review.setWifi(edit.getWifi());
+        review.setSeating(edit.getSeating());
+        review.setWorkFriendly(edit.getWorkFriendly());
+        review.setBathrooms(edit.getBathrooms());
+        review.setPetFriendly(edit.getPetFriendly());
+        review.setParking(edit.getParking());
+        review.setPriceRange(edit.getPriceRange());
+        review.setWaitTime(edit.getWaitTime());
+        review.setUpdatedAt(now);
+        return review;
+    }
+}
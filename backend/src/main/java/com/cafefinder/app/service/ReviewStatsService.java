@@ -0,0 +1,130 @@
+package com.cafefinder.app.service;
+
+import io.micrometer.core.annotation.Timed;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admin dashboard review statistics, computed with a single $facet aggregation
+ * and cached for a short time so dashboard refreshes don't each hit Mongo.
+ */
+@Service
+public class ReviewStatsService {
+    private static final int SUBMISSION_DAYS = 30;
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration ttl;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile Map<String, Object> cachedStats;
+    private volatile Instant expiresAt = Instant.EPOCH;
+
+    public ReviewStatsService(MongoTemplate mongoTemplate,
+                              @Value("${cafefinder.admin.stats-ttl-ms:5000}") long ttlMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.ttl = Duration.ofMillis(ttlMs);
+    }
+
+    @Timed("cafefinder.review.stats")
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = cachedStats;
+        if (stats != null && Instant.now().isBefore(expiresAt)) {
+            return stats;
+        }
+
+        // Only one request recomputes; the rest wait and reuse its result
+        refreshLock.lock();
+        try {
+            if (cachedStats != null && Instant.now().isBefore(expiresAt)) {
+                return cachedStats;
+            }
+            stats = computeStats();
+            cachedStats = stats;
+            expiresAt = Instant.now().plus(ttl);
+            return stats;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    // Called after moderation so the dashboard reflects the change immediately
+    public void invalidate() {
+        expiresAt = Instant.EPOCH;
+    }
+
+    private Map<String, Object> computeStats() {
+        Instant now = Instant.now();
+        Date since = Date.from(now.minus(Duration.ofDays(SUBMISSION_DAYS)));
+
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.facet(
+                    Aggregation.group("status").count().as("count")
+                ).as("byStatus")
+                .and(
+                    Aggregation.match(Criteria.where("createdAt").gte(since)),
+                    Aggregation.project()
+                        .and(DateOperators.DateToString.dateOf("createdAt").toString("%Y-%m-%d")).as("day"),
+                    Aggregation.group("day").count().as("count"),
+                    Aggregation.sort(Sort.Direction.ASC, "_id")
+                ).as("perDay")
+                .and(
+                    Aggregation.match(Criteria.where("status").is("PENDING")),
+                    Aggregation.group().min("createdAt").as("oldest")
+                ).as("oldestPending")
+        );
+
+        Document result = mongoTemplate.aggregate(aggregation, "reviews", Document.class).getUniqueMappedResult();
+
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        long total = 0;
+        for (Document doc : facet(result, "byStatus")) {
+            long count = ((Number) doc.get("count")).longValue();
+            byStatus.put(String.valueOf(doc.get("_id")), count);
+            total += count;
+        }
+
+        Map<String, Long> perDay = new LinkedHashMap<>();
+        for (Document doc : facet(result, "perDay")) {
+            perDay.put(doc.getString("_id"), ((Number) doc.get("count")).longValue());
+        }
+
+        Long oldestPendingAgeSeconds = null;
+        List<Document> oldestPending = facet(result, "oldestPending");
+        if (!oldestPending.isEmpty() && oldestPending.get(0).getDate("oldest") != null) {
+            Instant oldest = oldestPending.get(0).getDate("oldest").toInstant();
+            oldestPendingAgeSeconds = Duration.between(oldest, now).getSeconds();
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalReviews", total);
+        stats.put("pendingReviews", byStatus.getOrDefault("PENDING", 0L));
+        stats.put("approvedReviews", byStatus.getOrDefault("APPROVED", 0L));
+        stats.put("rejectedReviews", byStatus.getOrDefault("REJECTED", 0L));
+        stats.put("byStatus", byStatus);
+        stats.put("submissionsPerDay", perDay);
+        stats.put("oldestPendingAgeSeconds", oldestPendingAgeSeconds);
+        stats.put("generatedAt", now);
+        return Collections.unmodifiableMap(stats);
+    }
+
+    private static List<Document> facet(Document result, String name) {
+        if (result == null) return List.of();
+        List<Document> docs = result.getList(name, Document.class);
+        return docs != null ? docs : List.of();
+    }
+}
@@ -0,0 +1,70 @@
+package com.cafefinder.app.service;
+
+import com.cafefinder.app.model.ReviewSummary;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+
+/**
+ * Maintains the per-cafe review summaries (star histograms per dimension, amenity
+ * confirmations, wait times) from the same rating deltas that keep cafe averages
+ * current, so the summary never needs the reviews themselves to be read.
+ */
+@Service
+public class ReviewSummaryService {
+    private final MongoTemplate mongoTemplate;
+    private final String collection;
+
+    public ReviewSummaryService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        this.collection = mongoTemplate.getCollectionName(ReviewSummary.class);
+    }
+
+    /** The cafe's summary; empty when it has no approved reviews yet. */
+    public ReviewSummary get(String cafeId) {
+        ReviewSummary summary = mongoTemplate.findById(cafeId, ReviewSummary.class);
+        return summary != null ? summary : new ReviewSummary(cafeId);
+    }
+
+    /** Adds a delta with a single $inc upsert. */
+    public void apply(String cafeId, RatingDelta delta) {
+        if (cafeId == null || delta.isEmpty()) return;
+
+        Update update = new Update()
+                .inc("reviewsCount", delta.getCount())
+                .inc("waitTimeSum", delta.getWaitTimeSum())
+                .inc("waitTimeCount", delta.getWaitTimeCount());
+        for (Map.Entry<String, Long> tally : delta.getTallies().entrySet()) {
+            if (tally.getValue() != 0) update.inc(tally.getKey(), tally.getValue());
+        }
+        // Addressed by collection name so the map keys in the paths go to Mongo unmapped
+        mongoTemplate.upsert(new Query(Criteria.where("_id").is(cafeId)), update, collection);
+    }
+
+    /** Replaces the summary with totals recomputed from every approved review. */
+    public void replace(String cafeId, RatingDelta totals) {
+        Document histograms = new Document();
+        Document amenities = new Document();
+        for (Map.Entry<String, Long> tally : totals.getTallies().entrySet()) {
+            if (tally.getValue() == 0) continue;
+            // Paths are "<group>.<name>.<key>"
+            String[] path = tally.getKey().split("\\.");
+            Document group = "histograms".equals(path[0]) ? histograms : amenities;
+            Document counts = (Document) group.computeIfAbsent(path[1], k -> new Document());
+            counts.put(path[2], tally.getValue());
+        }
+        Update update = new Update()
+                .set("reviewsCount", totals.getCount())
+                .set("histograms", histograms)
+                .set("amenities", amenities)
+                .set("waitTimeSum", totals.getWaitTimeSum())
+                .set("waitTimeCount", totals.getWaitTimeCount());
+        // Same query as apply(), so both map the cafe id to the same _id
+        mongoTemplate.upsert(new Query(Criteria.where("_id").is(cafeId)), update, collection);
+    }
+}
@@ -0,0 +1,293 @@
+package com.cafefinder.app.service;
+
+import com.cafefinder.app.dto.Suggestion;
+import com.cafefinder.app.model.Cafe;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typeahead over cafe names, cities and tags, backed by an in-memory radix trie.
+ *
+ * Terms are the full name plus each word of the name, the city and each tag,
+ * lowercased. Every trie node lazily caches its top cafes by popularityScore;
+ * a write clears the caches along the paths of the terms it touches, so the
+ * next lookup under those prefixes recomputes just that subtree.
+ */
+@Component
+public class SuggestionIndex {
+    private static final Logger log = LoggerFactory.getLogger(SuggestionIndex.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final int maxSuggestions;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Comparator<Entry> ranking = Comparator
+            .comparingDouble((Entry e) -> e.score).reversed()
+            .thenComparing(e -> e.name, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final Node root = new Node("");
+    private final Map<String, Entry> entries = new HashMap<>();
+    private boolean ready;
+
+    public SuggestionIndex(MongoTemplate mongoTemplate,
+                           @Value("${cafefinder.suggest.max-results:10}") int maxSuggestions) {
+        this.mongoTemplate = mongoTemplate;
+        this.maxSuggestions = maxSuggestions;
+    }
+
+    public int getMaxSuggestions() { return maxSuggestions; }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        lock.writeLock().lock();
+        try {
+            // Queried under the lock: a change event for a write the query misses waits here, then applies
+            Query query = new Query();
+            query.fields().include("name", "city", "tags", "popularityScore");
+            List<Cafe> cafes = mongoTemplate.find(query, Cafe.class);
+
+            root.children.clear();
+            root.ids = null;
+            root.top = null;
+            entries.clear();
+            cafes.forEach(this::put);
+            ready = true;
+            log.info("Suggestion index built over {} cafes", cafes.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onCafeChanged(CafeChangedEvent event) {
+        if (event.getType() == CafeChangedEvent.Type.STATUS) return;
+
+        lock.writeLock().lock();
+        try {
+            // Not built yet: this write was committed before the build's query, which runs under this lock
+            if (!ready) return;
+            remove(event.getCafe().getId());
+            if (event.getType() != CafeChangedEvent.Type.DELETED) {
+                put(event.getCafe());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Most popular cafes with a name word, full name, city or tag starting with the prefix. */
+    @Timed("cafefinder.suggest")
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String term = normalize(prefix);
+        if (term.isEmpty() || limit <= 0) return List.of();
+
+        lock.readLock().lock();
+        try {
+            Node node = find(term);
+            if (node == null) return List.of();
+            List<Entry> top = node.top;
+            if (top == null) {
+                // Benign race: concurrent readers may compute the same list
+                top = rank(node);
+                node.top = top;
+            }
+            List<Suggestion> suggestions = new ArrayList<>(Math.min(limit, top.size()));
+            for (Entry entry : top.subList(0, Math.min(limit, top.size()))) {
+                suggestions.add(new Suggestion(entry.id, entry.name, entry.city));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(Cafe cafe) {
+        Entry entry = new Entry(cafe.getId(), cafe.getName(), cafe.getCity(), cafe.getPopularityScore(), terms(cafe));
+        entries.put(entry.id, entry);
+        for (String term : entry.terms) {
+            insert(term, entry.id);
+        }
+    }
+
+    private void remove(String id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) return;
+        for (String term : entry.terms) {
+            delete(term, id);
+        }
+    }
+
+    private static Set<String> terms(Cafe cafe) {
+        Set<String> terms = new LinkedHashSet<>();
+        addTerm(terms, cafe.getName());
+        if (cafe.getName() != null) {
+            for (String word : cafe.getName().split("\\s+")) addTerm(terms, word);
+        }
+        addTerm(terms, cafe.getCity());
+        if (cafe.getTags() != null) {
+            for (String tag : cafe.getTags()) addTerm(terms, tag);
+        }
+        return terms;
+    }
+
+    private static void addTerm(Set<String> terms, String value) {
+        String term = normalize(value);
+        if (!term.isEmpty()) terms.add(term);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    // Walks to the node for the term, splitting edges as needed, and clears cached rankings on the way
+    private void insert(String term, String id) {
+        Node node = root;
+        int i = 0;
+        node.top = null;
+        while (i < term.length()) {
+            Node child = node.children.get(term.charAt(i));
+            if (child == null) {
+                child = new Node(term.substring(i));
+                node.children.put(term.charAt(i), child);
+                node = child;
+                break;
+            }
+            int common = commonPrefix(child.label, term, i);
+            if (common < child.label.length()) {
+                // Split the edge at the divergence point
+                Node split = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.children.put(child.label.charAt(0), child);
+                node.children.put(split.label.charAt(0), split);
+                child = split;
+            }
+            node = child;
+            node.top = null;
+            i += common;
+        }
+        node.top = null;
+        if (node.ids == null) node.ids = new HashSet<>();
+        node.ids.add(id);
+    }
+
+    private void delete(String term, String id) {
+        Deque<Node> parents = new ArrayDeque<>();
+        Node node = root;
+        int i = 0;
+        node.top = null;
+        while (i < term.length()) {
+            Node child = node.children.get(term.charAt(i));
+            if (child == null || !term.startsWith(child.label, i)) return;
+            parents.push(node);
+            node = child;
+            node.top = null;
+            i += child.label.length();
+        }
+        if (node.ids == null || !node.ids.remove(id)) return;
+        if (!node.ids.isEmpty()) return;
+        node.ids = null;
+
+        // Prune on the way back up: drop emptied leaves and fold pass-through nodes into
+        // their only child, so renames and deletes don't leave dead branches behind
+        while (!parents.isEmpty() && node.ids == null) {
+            Node parent = parents.pop();
+            if (node.children.isEmpty()) {
+                parent.children.remove(node.label.charAt(0));
+            } else if (node.children.size() == 1) {
+                Node only = node.children.values().iterator().next();
+                only.label = node.label + only.label;
+                parent.children.put(only.label.charAt(0), only);
+            } else {
+                break;
+            }
+            node = parent;
+        }
+    }
+
+    // Node whose subtree holds every term starting with the prefix; may end part-way along an edge
+    private Node find(String prefix) {
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            Node child = node.children.get(prefix.charAt(i));
+            if (child == null) return null;
+            int common = commonPrefix(child.label, prefix, i);
+            if (i + common == prefix.length()) return child;
+            if (common < child.label.length()) return null;
+            node = child;
+            i += common;
+        }
+        return node;
+    }
+
+    private List<Entry> rank(Node node) {
+        Set<String> ids = new HashSet<>();
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(node);
+        while (!stack.isEmpty()) {
+            Node current = stack.pop();
+            if (current.ids != null) ids.addAll(current.ids);
+            current.children.values().forEach(stack::push);
+        }
+        List<Entry> ranked = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            ranked.add(entries.get(id));
+        }
+        ranked.sort(ranking);
+        return Collections.unmodifiableList(new ArrayList<>(ranked.subList(0, Math.min(maxSuggestions, ranked.size()))));
+    }
+
+    private static int commonPrefix(String label, String term, int offset) {
+        int max = Math.min(label.length(), term.length() - offset);
+        int n = 0;
+        while (n < max && label.charAt(n) == term.charAt(offset + n)) n++;
+        return n;
+    }
+
+    private static final class Node {
+        private String label; // edge label from the parent
+        private final Map<Character, Node> children = new HashMap<>();
+        private Set<String> ids; // cafes with a term ending exactly here
+        private volatile List<Entry> top; // cached ranking for the subtree; null when stale
+
+        Node(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final class Entry {
+        private final String id;
+        private final String name;
+        private final String city;
+        private final double score;
+        private final Set<String> terms;
+
+        Entry(String id, String name, String city, double score, Set<String> terms) {
+            this.id = id;
+            this.name = name;
+            this.city = city;
+            this.score = score;
+            this.terms = terms;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.cafefinder.app.service;
+
+import com.cafefinder.app.dto.PublicUser;
+import com.cafefinder.app.model.User;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Batched lookup of public user profiles by id, one $in query for the whole list
+ * that reads only the public fields.
+ */
+@Component
+public class UserLoader {
+    private final MongoTemplate mongoTemplate;
+
+    public UserLoader(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /** Profiles in the order of ids, with null for ids that have none; callers bound the list size. */
+    public List<PublicUser> loadMany(List<String> ids) {
+        Set<String> distinct = new LinkedHashSet<>(ids);
+        distinct.remove(null);
+        Map<String, PublicUser> users = new HashMap<>();
+        if (!distinct.isEmpty()) {
+            Query query = new Query(Criteria.where("id").in(distinct));
+            query.fields().include(PublicUser.FIELDS);
+            for (User user : mongoTemplate.find(query, User.class)) users.put(user.getId(), new PublicUser(user));
+        }
+        List<PublicUser> result = new ArrayList<>(ids.size());
+        for (String id : ids) result.add(id != null ? users.get(id) : null);
+        return result;
+    }
+}
@@ -0,0 +1,118 @@
+package com.cafefinder.app.util;
+
+/**
+ * Great-circle distances in kilometres, plus a per-query radius filter that
+ * avoids full haversine trigonometry for most candidates.
+ */
+public final class GeoDistance {
+    public static final double EARTH_RADIUS_KM = 6371;
+
+    // Equirectangular error stays well under this fraction of the radius for circles within
+    // the radius and latitude limits below; closer to the poles it grows past it quickly
+    private static final double EDGE_MARGIN = 0.01;
+    private static final double APPROX_MAX_RADIUS_KM = 200;
+    private static final double APPROX_MAX_LATITUDE = 80;
+
+    private GeoDistance() {
+    }
+
+    public static double haversine(double lat1, double lng1, double lat2, double lng2) {
+        double latDistance = Math.toRadians(lat2 - lat1);
+        double lngDistance = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(lngDistance / 2) * Math.sin(lngDistance / 2);
+        return EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    public static RadiusFilter within(double lat, double lng, double radiusKm) {
+        return new RadiusFilter(lat, lng, radiusKm);
+    }
+
+    /**
+     * Tests points against a circle around a fixed query point. Points outside the
+     * lat/lng bounding box are rejected with comparisons only; the rest get an
+     * equirectangular estimate, and exact haversine runs only for points whose
+     * estimate lands within EDGE_MARGIN of the radius.
+     */
+    public static final class RadiusFilter {
+        private final double lat;
+        private final double lng;
+        private final double radiusKm;
+        private final double latRad;
+        private final double cosLat;
+        private final double minLat;
+        private final double maxLat;
+        private final double minLng;
+        private final double maxLng;
+        private final boolean boundsLongitude;
+        private final boolean approximate;
+        private final double innerKmSq;
+        private final double outerKmSq;
+
+        private RadiusFilter(double lat, double lng, double radiusKm) {
+            this.lat = lat;
+            this.lng = lng;
+            this.radiusKm = radiusKm;
+            this.latRad = Math.toRadians(lat);
+            this.cosLat = Math.cos(latRad);
+
+            double latDelta = Math.toDegrees(radiusKm / EARTH_RADIUS_KM);
+            this.minLat = lat - latDelta;
+            this.maxLat = lat + latDelta;
+            double farthestLat = Math.abs(lat) + latDelta;
+            double lngDelta = farthestLat < 90
+                    ? Math.toDegrees(radiusKm / (EARTH_RADIUS_KM * Math.cos(Math.toRadians(farthestLat))))
+                    : 360;
+            // No longitude bound near the poles or across the antimeridian
+            this.boundsLongitude = lng - lngDelta >= -180 && lng + lngDelta <= 180;
+            this.minLng = lng - lngDelta;
+            this.maxLng = lng + lngDelta;
+
+            this.approximate = radiusKm <= APPROX_MAX_RADIUS_KM && farthestLat <= APPROX_MAX_LATITUDE;
+            double inner = radiusKm * (1 - EDGE_MARGIN);
+            double outer = radiusKm * (1 + EDGE_MARGIN);
+            this.innerKmSq = inner * inner;
+            this.outerKmSq = outer * outer;
+        }
+
+        public double getMinLat() { return minLat; }
+        public double getMaxLat() { return maxLat; }
+        public double getMinLng() { return minLng; }
+        public double getMaxLng() { return maxLng; }
+        public boolean boundsLongitude() { return boundsLongitude; }
+        public double getRadiusKm() { return radiusKm; }
+
+        /**
+         * Distance to the point in km if it lies within the radius, otherwise -1.
+         * Points well inside the circle return the equirectangular estimate; use
+         * {@link #exactDistance} where the reported value must be exact.
+         */
+        public double distanceIfWithin(double pointLat, double pointLng) {
+            if (pointLat < minLat || pointLat > maxLat) return -1;
+            if (boundsLongitude && (pointLng < minLng || pointLng > maxLng)) return -1;
+
+            if (approximate) {
+                double dLng = pointLng - lng;
+                if (dLng > 180) dLng -= 360; else if (dLng < -180) dLng += 360;
+                double x = Math.toRadians(dLng) * Math.cos((latRad + Math.toRadians(pointLat)) / 2);
+                double y = Math.toRadians(pointLat - lat);
+                double estimateSq = (x * x + y * y) * EARTH_RADIUS_KM * EARTH_RADIUS_KM;
+                if (estimateSq < innerKmSq) return Math.sqrt(estimateSq);
+                if (estimateSq > outerKmSq) return -1;
+            }
+
+            double exact = exactDistance(pointLat, pointLng);
+            return exact <= radiusKm ? exact : -1;
+        }
+
+        // Haversine with the query point's terms precomputed
+        public double exactDistance(double pointLat, double pointLng) {
+            double pointLatRad = Math.toRadians(pointLat);
+            double sinDLat = Math.sin((pointLatRad - latRad) / 2);
+            double sinDLng = Math.sin(Math.toRadians(pointLng - lng) / 2);
+            double a = sinDLat * sinDLat + cosLat * Math.cos(pointLatRad) * sinDLng * sinDLng;
+            return EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        }
+    }
+}
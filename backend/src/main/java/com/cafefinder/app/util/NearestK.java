@@ -0,0 +1,90 @@
+package com.cafefinder.app.util;
+
+/**
+ * Keeps the k smallest (distance, index) pairs seen, in a bounded max-heap over
+ * primitive arrays. Offering n candidates costs O(n log k) with no boxing, instead
+ * of sorting all n to keep the first k.
+ */
+public final class NearestK {
+    private final double[] distances;
+    private final int[] indices;
+    private int size;
+    private boolean sorted;
+
+    public NearestK(int k) {
+        if (k < 0) throw new IllegalArgumentException("k must not be negative: " + k);
+        this.distances = new double[k];
+        this.indices = new int[k];
+    }
+
+    public void offer(int index, double distance) {
+        if (sorted) throw new IllegalStateException("Already sorted");
+        if (size < distances.length) {
+            distances[size] = distance;
+            indices[size] = index;
+            siftUp(size++);
+        } else if (size > 0 && distance < distances[0]) {
+            // Replace the current farthest
+            distances[0] = distance;
+            indices[0] = index;
+            siftDown(0, size);
+        }
+    }
+
+    /** Heap-sorts in place so index(i) and distance(i) run nearest first. */
+    public void sort() {
+        if (sorted) return;
+        for (int end = size - 1; end > 0; end--) {
+            swap(0, end);
+            siftDown(0, end);
+        }
+        sorted = true;
+    }
+
+    public int size() { return size; }
+
+    public int index(int i) {
+        checkSorted();
+        return indices[i];
+    }
+
+    public double distance(int i) {
+        checkSorted();
+        return distances[i];
+    }
+
+    private void checkSorted() {
+        if (!sorted) throw new IllegalStateException("Call sort() first");
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (distances[parent] >= distances[i]) return;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i, int end) {
+        while (true) {
+            int largest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < end && distances[left] > distances[largest]) largest = left;
+            if (right < end && distances[right] > distances[largest]) largest = right;
+            if (largest == i) return;
+            swap(i, largest);
+            i = largest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        double d = distances[a];
+        distances[a] = distances[b];
+        distances[b] = d;
+        int x = indices[a];
+        indices[a] = indices[b];
+        indices[b] = x;
+    }
+}
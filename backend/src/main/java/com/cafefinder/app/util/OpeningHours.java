@@ -0,0 +1,114 @@
+package com.cafefinder.app.util;
+
+import com.cafefinder.app.model.OpenInterval;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles free-text cafe hours ({0: "7:00-19:00", ...}, 0 = Sunday) into sorted,
+ * merged minute-of-week intervals, so "is it open at minute m" is a scan of a
+ * handful of ints. Understands 24-hour and am/pm times, several ranges per day
+ * separated by ',' or ';', "closed", "24 hours", and ranges past midnight.
+ * Ranges that can't be read are skipped.
+ */
+public final class OpeningHours {
+    public static final int MINUTES_PER_DAY = 24 * 60;
+    public static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+
+    private static final Pattern RANGE = Pattern.compile("(.+?)\\s*(?:-|\\u2013|\\u2014|\\bto\\b)\\s*(.+)");
+    private static final Pattern TIME = Pattern.compile("(\\d{1,2})(?:[:.](\\d{2}))?\\s*(am|pm|a\\.m\\.|p\\.m\\.)?");
+
+    private OpeningHours() {
+    }
+
+    public static List<OpenInterval> compile(Map<Integer, String> hours) {
+        if (hours == null) return null;
+        List<OpenInterval> intervals = new ArrayList<>();
+        for (Map.Entry<Integer, String> day : hours.entrySet()) {
+            if (day.getKey() == null || day.getKey() < 0 || day.getKey() > 6 || day.getValue() == null) continue;
+            int dayStart = day.getKey() * MINUTES_PER_DAY;
+            for (String range : day.getValue().toLowerCase(Locale.ROOT).split("[,;]")) {
+                addRange(intervals, dayStart, range.trim());
+            }
+        }
+        return merge(intervals);
+    }
+
+    public static int minuteOfWeek(ZonedDateTime time) {
+        return (time.getDayOfWeek().getValue() % 7) * MINUTES_PER_DAY + time.getHour() * 60 + time.getMinute();
+    }
+
+    public static boolean isOpen(List<OpenInterval> intervals, int minuteOfWeek) {
+        if (intervals == null) return false;
+        for (OpenInterval interval : intervals) {
+            if (interval.getStart() > minuteOfWeek) return false; // sorted by start
+            if (minuteOfWeek < interval.getEnd()) return true;
+        }
+        return false;
+    }
+
+    private static void addRange(List<OpenInterval> intervals, int dayStart, String range) {
+        if (range.isEmpty() || range.startsWith("closed")) return;
+        if (range.contains("24 hours") || range.equals("24h") || range.equals("24/7")) {
+            intervals.add(new OpenInterval(dayStart, dayStart + MINUTES_PER_DAY));
+            return;
+        }
+
+        Matcher matcher = RANGE.matcher(range);
+        if (!matcher.matches()) return;
+        int open = parseTime(matcher.group(1).trim());
+        int close = parseTime(matcher.group(2).trim());
+        if (open == MINUTES_PER_DAY) open = 0; // "midnight" or "24:00" opens at the start of the day
+        if (open < 0 || close < 0 || open >= MINUTES_PER_DAY) return;
+        if (close <= open) close += MINUTES_PER_DAY; // closes after midnight
+
+        int start = dayStart + open;
+        int end = dayStart + close;
+        if (end <= MINUTES_PER_WEEK) {
+            intervals.add(new OpenInterval(start, end));
+        } else {
+            // Saturday night into Sunday morning wraps to the start of the week
+            intervals.add(new OpenInterval(start, MINUTES_PER_WEEK));
+            intervals.add(new OpenInterval(0, end - MINUTES_PER_WEEK));
+        }
+    }
+
+    // Minutes after midnight, or -1 if unreadable; "midnight" and "24:00" read as the end of the day
+    private static int parseTime(String time) {
+        if (time.equals("noon")) return 12 * 60;
+        if (time.equals("midnight")) return MINUTES_PER_DAY;
+        Matcher matcher = TIME.matcher(time);
+        if (!matcher.matches()) return -1;
+        int hour = Integer.parseInt(matcher.group(1));
+        int minute = matcher.group(2) == null ? 0 : Integer.parseInt(matcher.group(2));
+        String meridiem = matcher.group(3);
+        if (minute > 59) return -1;
+        if (meridiem != null) {
+            if (hour < 1 || hour > 12) return -1;
+            hour = hour % 12 + (meridiem.startsWith("p") ? 12 : 0);
+        }
+        int minutes = hour * 60 + minute;
+        return minutes > MINUTES_PER_DAY ? -1 : minutes;
+    }
+
+    private static List<OpenInterval> merge(List<OpenInterval> intervals) {
+        intervals.sort(Comparator.comparingInt(OpenInterval::getStart));
+        List<OpenInterval> merged = new ArrayList<>(intervals.size());
+        for (OpenInterval interval : intervals) {
+            OpenInterval last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && interval.getStart() <= last.getEnd()) {
+                last.setEnd(Math.max(last.getEnd(), interval.getEnd()));
+            } else {
+                merged.add(new OpenInterval(interval.getStart(), interval.getEnd()));
+            }
+        }
+        return merged;
+    }
+}
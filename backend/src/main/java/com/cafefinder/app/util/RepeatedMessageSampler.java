@@ -0,0 +1,76 @@
+package com.cafefinder.app.util;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Logback turbo filter that lets through at most {@code allowedPerWindow} events per
+ * message format and logger within each time window, for the configured logger prefixes.
+ * Keyed on the unformatted message, so parameterized calls like
+ * {@code log.warn("Invalid JWT token: {}", msg)} are sampled together.
+ */
+public class RepeatedMessageSampler extends TurboFilter {
+    private static final int MAX_TRACKED_MESSAGES = 1000;
+
+    private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+    private List<String> loggerPrefixes = new ArrayList<>();
+    private int allowedPerWindow = 20;
+    private long windowMillis = 10_000;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (format == null || !isStarted() || !matches(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+
+        if (windows.size() > MAX_TRACKED_MESSAGES) {
+            windows.clear();
+        }
+
+        long now = System.currentTimeMillis();
+        Window window = windows.computeIfAbsent(logger.getName() + '|' + format, k -> new Window(now));
+        return window.tryAcquire(now, windowMillis, allowedPerWindow) ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private boolean matches(String loggerName) {
+        for (String prefix : loggerPrefixes) {
+            if (loggerName.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+
+    public void setLoggerPrefixes(String prefixes) {
+        List<String> parsed = new ArrayList<>();
+        for (String prefix : prefixes.split(",")) {
+            if (!prefix.isBlank()) parsed.add(prefix.trim());
+        }
+        this.loggerPrefixes = parsed;
+    }
+
+    public void setAllowedPerWindow(int allowedPerWindow) { this.allowedPerWindow = allowedPerWindow; }
+
+    public void setWindowMillis(long windowMillis) { this.windowMillis = windowMillis; }
+
+    private static final class Window {
+        private volatile long start;
+        private final AtomicInteger count = new AtomicInteger();
+
+        Window(long start) { this.start = start; }
+
+        boolean tryAcquire(long now, long windowMillis, int allowed) {
+            if (now - start >= windowMillis) {
+                start = now;
+                count.set(0);
+            }
+            return count.incrementAndGet() <= allowed;
+        }
+    }
+}
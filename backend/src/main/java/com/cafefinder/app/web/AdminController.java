@@ -1,7 +1,11 @@
 package com.cafefinder.app.web;
 
+import com.cafefinder.app.dto.BulkModerationRequest;
+import com.cafefinder.app.dto.ModerationPage;
 import com.cafefinder.app.model.Review;
 import com.cafefinder.app.repo.ReviewRepo;
+import com.cafefinder.app.service.ModerationService;
+import com.cafefinder.app.service.ReviewStatsService;
 import com.cafefinder.app.service.UserDetailsImpl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -9,7 +13,6 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
-import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -19,9 +22,14 @@ import java.util.Optional;
 public class AdminController {
 
     private final ReviewRepo reviewRepo;
+    private final ReviewStatsService reviewStatsService;
+    private final ModerationService moderationService;
 
-    public AdminController(ReviewRepo reviewRepo) {
+    public AdminController(ReviewRepo reviewRepo, ReviewStatsService reviewStatsService,
+                           ModerationService moderationService) {
         this.reviewRepo = reviewRepo;
+        this.reviewStatsService = reviewStatsService;
+        this.moderationService = moderationService;
     }
 
     // Get all pending reviews for admin approval
@@ -45,6 +53,42 @@ public class AdminController {
         return ResponseEntity.ok(reviews);
     }
 
+    // Moderation queue, oldest first; pass the returned nextCursor to fetch the next page
+    @GetMapping("/reviews/queue")
+    // @PreAuthorize("hasRole('ADMIN')") // Temporarily disabled for testing
+    public ResponseEntity<?> getModerationQueue(
+            @RequestParam(value = "status", defaultValue = "PENDING") String status,
+            @RequestParam(value = "cafeId", required = false) String cafeId,
+            @RequestParam(value = "userId", required = false) String userId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        try {
+            ModerationPage page = moderationService.getQueue(status, cafeId, userId, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Approve or reject many reviews in a single bulk write
+    @PostMapping("/reviews/bulk")
+    // @PreAuthorize("hasRole('ADMIN')") // Temporarily disabled for testing
+    public ResponseEntity<?> bulkReview(
+            @Valid @RequestBody BulkModerationRequest request,
+            Authentication authentication) {
+        try {
+            String adminId = "admin-temp-id";
+            if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl) {
+                adminId = ((UserDetailsImpl) authentication.getPrincipal()).getId();
+            }
+
+            return ResponseEntity.ok(moderationService.moderateAll(
+                request.getReviewIds(), request.getStatus(), request.getAdminNotes(), adminId));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error processing reviews: " + e.getMessage());
+        }
+    }
+
     // Approve or reject a review
     @PostMapping("/reviews/{reviewId}/review")
     // @PreAuthorize("hasRole('ADMIN')") // Temporarily disabled for testing
@@ -60,21 +104,13 @@ public class AdminController {
                 adminId = userDetails.getId();
             }
 
-            Optional<Review> reviewOpt = reviewRepo.findById(reviewId);
+            // Update review status; cafe ratings follow the status transition
+            Optional<Review> reviewOpt = moderationService.moderate(
+                reviewId, request.getStatus(), request.getAdminNotes(), adminId);
             if (!reviewOpt.isPresent()) {
                 return ResponseEntity.badRequest().body("Review not found");
             }
 
-            Review review = reviewOpt.get();
-            
-            // Update review status
-            review.setStatus(request.getStatus());
-            review.setAdminId(adminId);
-            review.setAdminNotes(request.getAdminNotes());
-            review.setReviewedAt(Instant.now());
-
-            reviewRepo.save(review);
-
             return ResponseEntity.ok().body(Map.of(
                 "message", "Review " + request.getStatus().toLowerCase() + " successfully",
                 "reviewId", reviewId,
@@ -89,19 +125,7 @@ public class AdminController {
     @GetMapping("/stats")
     // @PreAuthorize("hasRole('ADMIN')") // Temporarily disabled for testing
     public ResponseEntity<Map<String, Object>> getAdminStats() {
-        long totalReviews = reviewRepo.count();
-        long pendingReviews = reviewRepo.countByStatus("PENDING");
-        long approvedReviews = reviewRepo.countByStatus("APPROVED");
-        long rejectedReviews = reviewRepo.countByStatus("REJECTED");
-
-        Map<String, Object> stats = Map.of(
-            "totalReviews", totalReviews,
-            "pendingReviews", pendingReviews,
-            "approvedReviews", approvedReviews,
-            "rejectedReviews", rejectedReviews
-        );
-
-        return ResponseEntity.ok(stats);
+        return ResponseEntity.ok(reviewStatsService.getStats());
     }
 
     // DTO for review moderation
@@ -8,6 +8,8 @@ import com.cafefinder.app.repo.UserRepo;
 import com.cafefinder.app.service.UserDetailsImpl;
 import com.cafefinder.app.util.JwtUtils;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -26,6 +28,8 @@ import java.util.stream.Collectors;
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+
     @Autowired
     AuthenticationManager authenticationManager;
 
@@ -41,15 +45,14 @@ public class AuthController {
     @PostMapping("/login")
     public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
         try {
-            System.out.println("Login attempt for username: " + loginRequest.getUsername());
+            log.debug("Login attempt for username: {}", loginRequest.getUsername());
             
             Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
-            System.out.println("Authentication successful");
+            log.debug("Authentication successful for username: {}", loginRequest.getUsername());
 
             SecurityContextHolder.getContext().setAuthentication(authentication);
             String jwt = jwtUtils.generateJwtToken(authentication);
-            System.out.println("JWT generated successfully");
 
             UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
             Set<String> roles = userDetails.getAuthorities().stream()
@@ -68,8 +71,7 @@ public class AuthController {
                     userDetails.getEmail(),
                     roles));
         } catch (Exception e) {
-            System.out.println("Login error: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Login failed for username {}: {}", loginRequest.getUsername(), e.getMessage());
             return ResponseEntity.status(500).body("Authentication failed: " + e.getMessage());
         }
     }
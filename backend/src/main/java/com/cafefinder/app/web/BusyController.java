@@ -3,6 +3,8 @@ package com.cafefinder.app.web;
 import com.cafefinder.app.model.BusyEntry;
 import com.cafefinder.app.repo.BusyRepo;
 import com.cafefinder.app.repo.CafeRepo;
+import com.cafefinder.app.service.BusyService;
+import com.cafefinder.app.service.CafeService;
 import com.cafefinder.app.service.UserDetailsImpl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -10,12 +12,9 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/busy")
@@ -24,6 +23,12 @@ public class BusyController {
     
     @Autowired
     private CafeRepo cafeRepo;
+    
+    @Autowired
+    private CafeService cafeService;
+
+    @Autowired
+    private BusyService busyService;
 
     public BusyController(BusyRepo repo){ this.repo = repo; }
 
@@ -36,39 +41,13 @@ public class BusyController {
 
     @GetMapping("/public/cafe/{cafeId}/current")
     public ResponseEntity<Map<String, Object>> getCurrentStatus(@PathVariable String cafeId) {
-        // Get most recent entry within last 2 hours
-        Instant twoHoursAgo = Instant.now().minus(2, ChronoUnit.HOURS);
-        List<BusyEntry> recent = repo.findByCafeIdAndTimestampAfterOrderByTimestampDesc(cafeId, twoHoursAgo);
-        
-        if (recent.isEmpty()) {
-            return ResponseEntity.ok(Map.of(
-                "status", "unknown",
-                "crowdLevel", 0,
-                "waitTime", null,
-                "lastUpdated", null
-            ));
-        }
-
-        BusyEntry latest = recent.get(0);
-        return ResponseEntity.ok(Map.of(
-            "status", getCrowdStatus(latest.getCrowdLevel()),
-            "crowdLevel", latest.getCrowdLevel(),
-            "waitTime", latest.getWaitMins(),
-            "lastUpdated", latest.getTimestamp()
-        ));
+        return ResponseEntity.ok(busyService.currentStatus(cafeId));
     }
 
     @GetMapping("/public/cafe/{cafeId}/hourly-trends")
     public Map<Integer, Double> getHourlyTrends(@PathVariable String cafeId, 
                                               @RequestParam(defaultValue = "7") int days) {
-        Instant since = Instant.now().minus(days, ChronoUnit.DAYS);
-        List<BusyEntry> entries = repo.findByCafeIdAndTimestampAfterOrderByTimestampDesc(cafeId, since);
-        
-        return entries.stream()
-                .collect(Collectors.groupingBy(
-                    entry -> LocalDateTime.ofInstant(entry.getTimestamp(), ZoneOffset.UTC).getHour(),
-                    Collectors.averagingDouble(BusyEntry::getCrowdLevel)
-                ));
+        return busyService.hourlyTrends(cafeId, days);
     }
 
     @PostMapping
@@ -112,18 +91,7 @@ public class BusyController {
     }
 
     private void updateCafeCurrentStatus(String cafeId, BusyEntry latestEntry) {
-        cafeRepo.findById(cafeId).ifPresent(cafe -> {
-            cafe.setCurrentStatus(getCrowdStatus(latestEntry.getCrowdLevel()));
-            cafe.setCurrentWaitTime(latestEntry.getWaitMins());
-            cafeRepo.save(cafe);
-        });
-    }
-
-    private String getCrowdStatus(int crowdLevel) {
-        if (crowdLevel <= 30) return "quiet";
-        else if (crowdLevel <= 60) return "moderate";
-        else if (crowdLevel <= 85) return "busy";
-        else return "very_busy";
+        cafeService.updateCurrentStatus(cafeId, BusyService.crowdStatus(latestEntry.getCrowdLevel()), latestEntry.getWaitMins());
     }
 
     // Legacy endpoint for backward compatibility
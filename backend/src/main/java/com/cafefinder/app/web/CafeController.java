@@ -1,78 +1,213 @@
 package com.cafefinder.app.web;
 
+import com.cafefinder.app.dto.CafeSearchFilters;
+import com.cafefinder.app.dto.Suggestion;
 import com.cafefinder.app.model.Cafe;
+import com.cafefinder.app.model.MenuItem;
 import com.cafefinder.app.repo.CafeRepo;
+import com.cafefinder.app.service.CafeDetailService;
+import com.cafefinder.app.service.CafeLoader;
 import com.cafefinder.app.service.CafeService;
+import com.cafefinder.app.service.MapService;
+import com.cafefinder.app.service.SuggestionIndex;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/cafes")
 public class CafeController {
     private final CafeRepo repo;
     private final CafeService service;
+    private final PublicResponseCache responseCache;
+    private final MapService mapService;
+    private final MarkerTileCache markerTiles;
+    private final SuggestionIndex suggestions;
+    private final CafeDetailService detailService;
+    private final CafeLoader cafeLoader;
+    private final int maxDetailReviews;
+    private final int maxBatchIds;
 
-    public CafeController(CafeRepo repo, CafeService service){
+    public CafeController(CafeRepo repo, CafeService service, PublicResponseCache responseCache, MapService mapService,
+                          MarkerTileCache markerTiles, SuggestionIndex suggestions, CafeDetailService detailService,
+                          CafeLoader cafeLoader,
+                          @Value("${cafefinder.detail.max-reviews:50}") int maxDetailReviews,
+                          @Value("${cafefinder.batch.max-ids:200}") int maxBatchIds){
         this.repo = repo;
         this.service = service;
+        this.responseCache = responseCache;
+        this.mapService = mapService;
+        this.markerTiles = markerTiles;
+        this.suggestions = suggestions;
+        this.detailService = detailService;
+        this.cafeLoader = cafeLoader;
+        this.maxDetailReviews = maxDetailReviews;
+        this.maxBatchIds = maxBatchIds;
     }
 
     @GetMapping("/public/search")
-    public List<Cafe> search(
-            @RequestParam(value="q", required=false) String q,
-            @RequestParam(value="city", required=false) String city,
-            @RequestParam(value="lat", required=false) Double lat,
-            @RequestParam(value="lng", required=false) Double lng,
-            @RequestParam(value="radius", required=false, defaultValue="10") Double radius,
-            @RequestParam(value="wifi", required=false) Boolean wifi,
-            @RequestParam(value="seating", required=false) Boolean seating,
-            @RequestParam(value="workFriendly", required=false) Boolean workFriendly,
-            @RequestParam(value="priceRange", required=false) String priceRange,
-            @RequestParam(value="minRating", required=false) Double minRating
-    ){
-        return service.searchWithFilters(q, city, lat, lng, radius, wifi, seating, workFriendly, priceRange, minRating);
+    public ResponseEntity<?> search(CafeSearchFilters filters, HttpServletRequest request){
+        filters.trim();
+        try {
+            return responseCache.respond(searchKey("search", filters), request,
+                    () -> service.searchWithFilters(filters));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/public/search/facets")
+    public ResponseEntity<?> searchFacets(CafeSearchFilters filters, HttpServletRequest request){
+        filters.trim();
+        try {
+            return responseCache.respond(searchKey("facets", filters), request,
+                    () -> service.searchFacets(filters));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Open-hours filters are keyed by the minute of the week they resolve to, so openNow results roll over.
+    // Only q, city and sort match case-insensitively; list and price values are exact matches.
+    private String searchKey(String endpoint, CafeSearchFilters f) {
+        return PublicResponseCache.key(endpoint, PublicResponseCache.folded(f.getQ()),
+                PublicResponseCache.folded(f.getCity()), f.getLat(), f.getLng(), f.getRadius(),
+                f.getWifi(), f.getSeating(), f.getWorkFriendly(), f.getBathrooms(), f.getPetFriendly(),
+                f.getWheelchairAccessible(), f.getPriceRange(), f.getMinRating(),
+                f.getCoffeeType(), f.getAlternativeMilk(), f.getDietaryOption(), service.openMinute(f),
+                PublicResponseCache.folded(f.getSort()), f.getLimit());
     }
 
     @GetMapping("/public/nearby")
-    public List<Cafe> findNearby(
+    public List<?> findNearby(
             @RequestParam("lat") double lat,
             @RequestParam("lng") double lng,
-            @RequestParam(value="radius", defaultValue="5") double radius
+            @RequestParam(value="radius", defaultValue="5") double radius,
+            @RequestParam(value="sort", required=false) String sort,
+            @RequestParam(value="limit", required=false) Integer limit
     ) {
-        return service.findNearby(lat, lng, radius);
+        return service.findNearby(lat, lng, radius, "distance".equalsIgnoreCase(sort), limit);
+    }
+
+    // Map viewport: bbox=minLng,minLat,maxLng,maxLat; lower zooms return clusters
+    @GetMapping("/public/within")
+    public ResponseEntity<?> within(@RequestParam("bbox") double[] bbox,
+                                    @RequestParam(value="zoom", defaultValue="14") int zoom,
+                                    HttpServletRequest request) {
+        if (bbox.length != 4) {
+            return ResponseEntity.badRequest().body("bbox must be minLng,minLat,maxLng,maxLat");
+        }
+        try {
+            return responseCache.respond(PublicResponseCache.key("within", bbox[0], bbox[1], bbox[2], bbox[3], zoom),
+                    request, () -> mapService.within(bbox[0], bbox[1], bbox[2], bbox[3], zoom));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Marker tiles in web-mercator z/x/y addressing, cached and invalidated per tile
+    @GetMapping("/public/tiles/{z}/{x}/{y}")
+    public ResponseEntity<?> tile(@PathVariable int z, @PathVariable int x, @PathVariable int y,
+                                  HttpServletRequest request) {
+        try {
+            return markerTiles.respond(z, x, y, request);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Typeahead for the search box: top cafes by popularity for a name, city or tag prefix
+    @GetMapping("/public/suggest")
+    public List<Suggestion> suggest(@RequestParam("q") String q,
+                                    @RequestParam(value="limit", defaultValue="5") int limit) {
+        return suggestions.suggest(q, Math.min(limit, suggestions.getMaxSuggestions()));
     }
 
     @GetMapping("/public/popular")
-    public List<Cafe> getPopular(@RequestParam(value="limit", defaultValue="10") int limit) {
-        return service.getPopularCafes(limit);
+    public ResponseEntity<byte[]> getPopular(@RequestParam(value="limit", defaultValue="10") int limit,
+                                             @RequestParam(value="city", required=false) String city,
+                                             HttpServletRequest request) {
+        String trimmed = city != null ? city.trim() : null;
+        return responseCache.respond(PublicResponseCache.key("popular", limit, PublicResponseCache.folded(trimmed)), request,
+                () -> service.getPopularCafes(limit, trimmed));
     }
 
     @GetMapping("/public/{id}")
-    public ResponseEntity<Cafe> getPublic(@PathVariable String id){
-        return repo.findById(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<byte[]> getPublic(@PathVariable String id, HttpServletRequest request){
+        return responseCache.respond(PublicResponseCache.key("cafe", id), request,
+                () -> repo.findById(id).orElse(null));
+    }
+
+    // Resolves many cafe ids at once (favorites, review lists); results follow the request order, null where missing
+    @PostMapping("/public/batch")
+    public ResponseEntity<?> getBatch(@RequestBody List<String> ids) {
+        if (ids.size() > maxBatchIds) {
+            return ResponseEntity.badRequest().body("At most " + maxBatchIds + " ids per request");
+        }
+        return ResponseEntity.ok(cafeLoader.loadMany(ids));
+    }
+
+    // Cafe page in one round trip: cafe, newest approved reviews, current crowd status and hourly trends
+    @GetMapping("/public/{id}/detail")
+    public ResponseEntity<?> getDetail(@PathVariable String id,
+                                       @RequestParam(value="reviews", defaultValue="20") int reviews) {
+        try {
+            return detailService.load(id, Math.max(1, Math.min(reviews, maxDetailReviews)))
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (QueryTimeoutException e) {
+            return ResponseEntity.status(504).body(e.getMessage());
+        }
     }
 
     @PostMapping
     @PreAuthorize("hasRole('USER') or hasRole('OWNER') or hasRole('ADMIN')")
-    public Cafe create(@RequestBody Cafe c){
-        return service.createCafe(c);
+    public ResponseEntity<?> create(@RequestBody Cafe c){
+        try {
+            return ResponseEntity.ok(service.createCafe(c));
+        } catch (DuplicateKeyException e) {
+            return ResponseEntity.status(409).body("A cafe with this name already exists at this location");
+        }
     }
 
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('OWNER') or hasRole('ADMIN')")
-    public ResponseEntity<Cafe> update(@PathVariable String id, @RequestBody Cafe cafe) {
-        return repo.findById(id)
-                .map(existingCafe -> {
-                    cafe.setId(id);
-                    return ResponseEntity.ok(service.updateCafe(cafe));
-                })
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<?> update(@PathVariable String id, @RequestBody Cafe cafe) {
+        try {
+            return service.updateCafe(id, cafe)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        } catch (DuplicateKeyException e) {
+            return ResponseEntity.status(409).body("A cafe with this name already exists at this location");
+        }
+    }
+
+    // Partial update: send only the changed fields, plus "editVersion" to guard against lost updates
+    @PatchMapping("/{id}")
+    @PreAuthorize("hasRole('OWNER') or hasRole('ADMIN')")
+    public ResponseEntity<?> patch(@PathVariable String id, @RequestBody Map<String, Object> changes) {
+        try {
+            return service.patchCafe(id, changes)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        } catch (DuplicateKeyException e) {
+            return ResponseEntity.status(409).body("A cafe with this name already exists at this location");
+        }
     }
 
     @DeleteMapping("/{id}")
@@ -80,16 +215,48 @@ public class CafeController {
     public ResponseEntity<?> delete(@PathVariable String id) {
         return repo.findById(id)
                 .map(cafe -> {
-                    repo.delete(cafe);
+                    service.deleteCafe(cafe);
                     return ResponseEntity.ok().build();
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/{id}/menu")
-    public ResponseEntity<?> getMenu(@PathVariable String id) {
-        return repo.findById(id)
-                .map(cafe -> ResponseEntity.ok(cafe.getMenuItems()))
+    public ResponseEntity<byte[]> getMenu(@PathVariable String id, HttpServletRequest request) {
+        return responseCache.respond(PublicResponseCache.key("menu", id), request,
+                () -> service.getMenu(id).orElse(null));
+    }
+
+    @PostMapping("/{id}/menu")
+    @PreAuthorize("hasRole('OWNER') or hasRole('ADMIN')")
+    public ResponseEntity<?> addMenuItem(@PathVariable String id, @RequestBody MenuItem item) {
+        if (item.getName() == null || item.getName().isBlank()) {
+            return ResponseEntity.badRequest().body("Menu item name is required");
+        }
+        return service.addMenuItem(id, item)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> repo.existsById(id)
+                        ? ResponseEntity.status(409).body("Menu item already exists: " + item.getName())
+                        : ResponseEntity.notFound().build());
+    }
+
+    @PutMapping("/{id}/menu/{name}")
+    @PreAuthorize("hasRole('OWNER') or hasRole('ADMIN')")
+    public ResponseEntity<List<MenuItem>> updateMenuItem(@PathVariable String id, @PathVariable String name,
+                                                         @RequestBody MenuItem item) {
+        if (item.getName() == null || item.getName().isBlank()) {
+            item.setName(name);
+        }
+        return service.updateMenuItem(id, name, item)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}/menu/{name}")
+    @PreAuthorize("hasRole('OWNER') or hasRole('ADMIN')")
+    public ResponseEntity<List<MenuItem>> removeMenuItem(@PathVariable String id, @PathVariable String name) {
+        return service.removeMenuItem(id, name)
+                .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 }
@@ -0,0 +1,115 @@
+package com.cafefinder.app.web;
+
+import com.cafefinder.app.service.CafeImportService;
+import com.cafefinder.app.service.CatalogExportService;
+import com.cafefinder.app.service.ImportJob;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/admin/catalog")
+@PreAuthorize("hasRole('ADMIN')")
+public class CatalogAdminController {
+    private final CafeImportService importService;
+    private final CatalogExportService exportService;
+    private final long exportTimeoutMs;
+
+    public CatalogAdminController(CafeImportService importService, CatalogExportService exportService,
+                                  @Value("${cafefinder.export.timeout-ms:3600000}") long exportTimeoutMs) {
+        this.importService = importService;
+        this.exportService = exportService;
+        this.exportTimeoutMs = exportTimeoutMs;
+    }
+
+    /**
+     * Bulk cafe import. The request body is the raw file: a JSON array of cafes, or
+     * CSV with a header row. The format comes from ?format=json|csv or the Content-Type.
+     * Returns 202 with the job; poll its Location for progress and row errors.
+     */
+    @PostMapping("/imports")
+    public ResponseEntity<?> startImport(@RequestParam(value="format", required=false) String format,
+                                         HttpServletRequest request) throws IOException {
+        CafeImportService.Format resolved = resolveFormat(format, request.getContentType());
+        if (resolved == null) {
+            return ResponseEntity.badRequest().body("Use format=json or format=csv, or a JSON or CSV Content-Type");
+        }
+        ImportJob job = importService.start(request.getInputStream(), resolved);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/admin/catalog/imports/" + job.getId()))
+                .body(job);
+    }
+
+    @GetMapping("/imports")
+    public List<ImportJob> getImports() {
+        return importService.getJobs();
+    }
+
+    @GetMapping("/imports/{jobId}")
+    public ResponseEntity<ImportJob> getImport(@PathVariable String jobId) {
+        return importService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Gzip-compressed NDJSON snapshot of cafes, reviews and busy entries, streamed
+     * from Mongo cursors. Pass a checkpoint token from an interrupted export as
+     * ?after= to continue from that point.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<?> export(@RequestParam(value="collections", required=false) List<String> collections,
+                                    @RequestParam(value="after", required=false) String after,
+                                    HttpServletRequest request) {
+        List<String> selected = collections == null || collections.isEmpty()
+                ? CatalogExportService.collections()
+                : collections;
+        try {
+            exportService.validate(selected, after);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+
+        // Only this response may stream for long; other async requests keep the default timeout
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(exportTimeoutMs);
+        StreamingResponseBody body = out -> {
+            // Sync flush so each checkpoint reaches the client as soon as it is written
+            GZIPOutputStream gzip = new GZIPOutputStream(out, 8192, true);
+            exportService.export(selected, after, gzip);
+            gzip.finish();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/gzip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("cafefinder-export.ndjson.gz").build().toString())
+                .body(body);
+    }
+
+    private static CafeImportService.Format resolveFormat(String format, String contentType) {
+        if (format != null) {
+            switch (format.toLowerCase(Locale.ROOT)) {
+                case "json": return CafeImportService.Format.JSON;
+                case "csv": return CafeImportService.Format.CSV;
+                default: return null;
+            }
+        }
+        if (contentType == null) return null;
+        MediaType type = MediaType.parseMediaType(contentType);
+        if (MediaType.APPLICATION_JSON.includes(type)) return CafeImportService.Format.JSON;
+        if (type.getSubtype().equalsIgnoreCase("csv")) return CafeImportService.Format.CSV;
+        return null;
+    }
+}
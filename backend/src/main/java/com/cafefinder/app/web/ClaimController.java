@@ -6,6 +6,7 @@ import com.cafefinder.app.model.Cafe;
 import com.cafefinder.app.model.ClaimRequest;
 import com.cafefinder.app.repo.CafeRepo;
 import com.cafefinder.app.repo.ClaimRequestRepo;
+import com.cafefinder.app.service.CafeService;
 import com.cafefinder.app.service.UserDetailsImpl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -15,7 +16,9 @@ import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
 import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -29,6 +32,9 @@ public class ClaimController {
     @Autowired
     private CafeRepo cafeRepo;
     
+    @Autowired
+    private CafeService cafeService;
+    
     // Submit a claim request for a business
     @PostMapping("/request")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
@@ -70,8 +76,9 @@ public class ClaimController {
             claimRequest = claimRequestRepo.save(claimRequest);
             
             // Update cafe claim status to pending
-            cafe.setClaimStatus("PENDING");
-            cafeRepo.save(cafe);
+            Map<String, Object> pending = new LinkedHashMap<>();
+            pending.put("claimStatus", "PENDING");
+            cafeService.updateClaim(cafe.getId(), pending);
             
             return ResponseEntity.ok().body("Claim request submitted successfully. We will review your request within 3-5 business days.");
             
@@ -132,23 +139,18 @@ public class ClaimController {
             claimRequestRepo.save(claimRequest);
             
             // Update the cafe if approved
-            Optional<Cafe> cafeOpt = cafeRepo.findById(claimRequest.getCafeId());
-            if (cafeOpt.isPresent()) {
-                Cafe cafe = cafeOpt.get();
-                
-                if ("APPROVED".equals(reviewDto.getDecision())) {
-                    cafe.setClaimed(true);
-                    cafe.setClaimStatus("VERIFIED");
-                    cafe.setOwnerId(claimRequest.getUserId());
-                    cafe.setClaimedAt(Instant.now());
-                    cafe.setBusinessEmail(claimRequest.getBusinessEmail());
-                    cafe.setVerified(true);
-                } else {
-                    cafe.setClaimStatus("REJECTED");
-                }
-                
-                cafeRepo.save(cafe);
+            Map<String, Object> decision = new LinkedHashMap<>();
+            if ("APPROVED".equals(reviewDto.getDecision())) {
+                decision.put("isClaimed", true);
+                decision.put("claimStatus", "VERIFIED");
+                decision.put("ownerId", claimRequest.getUserId());
+                decision.put("claimedAt", Instant.now());
+                decision.put("businessEmail", claimRequest.getBusinessEmail());
+                decision.put("isVerified", true);
+            } else {
+                decision.put("claimStatus", "REJECTED");
             }
+            cafeService.updateClaim(claimRequest.getCafeId(), decision);
             
             return ResponseEntity.ok().body("Claim request reviewed successfully");
             
@@ -0,0 +1,245 @@
+package com.cafefinder.app.web;
+
+import com.cafefinder.app.model.Cafe;
+import com.cafefinder.app.service.CafeChangedEvent;
+import com.cafefinder.app.service.MapService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serialized map marker tiles addressed by web-mercator z/x/y, each with a strong ETag.
+ *
+ * Unlike PublicResponseCache, invalidation is per tile: the cache keeps every
+ * cafe's last known position, and a change to a cafe evicts only the tiles that
+ * contain its old and new positions, at every zoom. Tiles at the configured
+ * zoom levels that contain cafes are rendered once the application is ready.
+ */
+@Component
+public class MarkerTileCache {
+    private static final Logger log = LoggerFactory.getLogger(MarkerTileCache.class);
+    public static final int MAX_ZOOM = 22;
+
+    private final MapService mapService;
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final int maxEntries;
+    private final List<Integer> prerenderZooms;
+    private final CacheControl cacheControl;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, double[]> positions = new ConcurrentHashMap<>(); // cafe id -> {lat, lng}
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+
+    private final LinkedHashMap<String, Tile> tiles = new LinkedHashMap<String, Tile>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Tile> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    public MarkerTileCache(MapService mapService, MongoTemplate mongoTemplate, ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${cafefinder.tiles.max-entries:5000}") int maxEntries,
+                           @Value("${cafefinder.tiles.prerender-zooms:11,12,13}") List<Integer> prerenderZooms,
+                           @Value("${cafefinder.tiles.max-age-seconds:0}") long maxAgeSeconds) {
+        this.mapService = mapService;
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.maxEntries = maxEntries;
+        this.prerenderZooms = prerenderZooms;
+        this.cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic().mustRevalidate();
+
+        Gauge.builder("cafefinder.cache.size", this, MarkerTileCache::size)
+                .tag("cache", "marker-tiles")
+                .register(meterRegistry);
+        this.hits = Counter.builder("cafefinder.cache.requests")
+                .tag("cache", "marker-tiles").tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("cafefinder.cache.requests")
+                .tag("cache", "marker-tiles").tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @throws IllegalArgumentException if z/x/y is not a valid tile address
+     */
+    public ResponseEntity<byte[]> respond(int z, int x, int y, HttpServletRequest request) {
+        if (z < 0 || z > MAX_ZOOM || x < 0 || y < 0 || x >= (1 << z) || y >= (1 << z)) {
+            throw new IllegalArgumentException("No tile " + z + "/" + x + "/" + y);
+        }
+        String key = key(z, x, y);
+        Tile tile = get(key);
+        if (tile != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            tile = render(z, x, y);
+        }
+
+        if (PublicResponseCache.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), tile.etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(tile.etag)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(tile.etag)
+                .cacheControl(cacheControl)
+                .body(tile.body);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prerender() {
+        Query query = new Query();
+        query.fields().include("latitude", "longitude");
+        for (Document doc : mongoTemplate.find(query, Document.class, "cafes")) {
+            positions.put(String.valueOf(doc.get("_id")), new double[] {number(doc, "latitude"), number(doc, "longitude")});
+        }
+
+        long start = System.nanoTime();
+        Set<String> keys = new LinkedHashSet<>();
+        for (int z : prerenderZooms) {
+            if (z < 0 || z > MAX_ZOOM) continue;
+            for (double[] position : positions.values()) {
+                keys.add(tileKey(z, position));
+            }
+        }
+        for (String key : keys) {
+            String[] parts = key.split("/");
+            render(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+        }
+        log.info("Pre-rendered {} marker tiles at zooms {} in {} ms",
+                keys.size(), prerenderZooms, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @EventListener
+    public void onCafeChanged(CafeChangedEvent event) {
+        // Busy status isn't part of a marker
+        if (event.getType() == CafeChangedEvent.Type.STATUS) return;
+
+        Cafe cafe = event.getCafe();
+        double[] previous = event.getType() == CafeChangedEvent.Type.DELETED
+                ? positions.remove(cafe.getId())
+                : positions.put(cafe.getId(), new double[] {cafe.getLatitude(), cafe.getLongitude()});
+
+        invalidations.incrementAndGet();
+        lock.lock();
+        try {
+            for (int z = 0; z <= MAX_ZOOM; z++) {
+                if (previous != null) tiles.remove(tileKey(z, previous));
+                tiles.remove(tileKey(z, new double[] {cafe.getLatitude(), cafe.getLongitude()}));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Tile render(int z, int x, int y) {
+        long invalidationsBefore = invalidations.get();
+        double minLng = x / (double) (1 << z) * 360 - 180;
+        double maxLng = (x + 1) / (double) (1 << z) * 360 - 180;
+        double maxLat = tileLatitude(y, z);
+        double minLat = tileLatitude(y + 1, z);
+        Tile tile = new Tile(serialize(mapService.within(minLng, minLat, maxLng, maxLat, z)));
+
+        // A cafe change during rendering may have made this tile stale; serve it but don't keep it
+        if (invalidations.get() == invalidationsBefore) {
+            lock.lock();
+            try {
+                tiles.put(key(z, x, y), tile);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return tile;
+    }
+
+    private Tile get(String key) {
+        lock.lock();
+        try {
+            return tiles.get(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int size() {
+        lock.lock();
+        try {
+            return tiles.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize tile", e);
+        }
+    }
+
+    // Tile containing a {lat, lng} position, clamped to the mercator range
+    private static String tileKey(int z, double[] position) {
+        int n = 1 << z;
+        double latRad = Math.toRadians(Math.max(-85.05112878, Math.min(85.05112878, position[0])));
+        int x = (int) Math.floor((position[1] + 180) / 360 * n);
+        int y = (int) Math.floor((1 - Math.log(Math.tan(latRad) + 1 / Math.cos(latRad)) / Math.PI) / 2 * n);
+        return key(z, Math.max(0, Math.min(n - 1, x)), Math.max(0, Math.min(n - 1, y)));
+    }
+
+    private static double tileLatitude(int y, int z) {
+        double n = Math.PI - 2 * Math.PI * y / (1 << z);
+        return Math.toDegrees(Math.atan(Math.sinh(n)));
+    }
+
+    private static String key(int z, int x, int y) {
+        return z + "/" + x + "/" + y;
+    }
+
+    private static double number(Document doc, String field) {
+        Object value = doc.get(field);
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
+    }
+
+    private static final class Tile {
+        private final byte[] body;
+        private final String etag;
+
+        Tile(byte[] body) {
+            this.body = body;
+            this.etag = PublicResponseCache.strongEtag(body);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.cafefinder.app.web;
+
+import com.cafefinder.app.service.CafeChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Server-side cache of serialized public cafe responses, with strong ETags.
+ *
+ * Entries are stamped with the catalog version they were built from; every
+ * CafeChangedEvent bumps the version, which invalidates all entries at once.
+ * A request carrying a matching If-None-Match for a current entry gets a 304
+ * without touching Mongo or re-serializing.
+ */
+@Component
+public class PublicResponseCache {
+    private final ObjectMapper objectMapper;
+    private final int maxEntries;
+    private final CacheControl cacheControl;
+    private final AtomicLong catalogVersion = new AtomicLong();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter notModified;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    public PublicResponseCache(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                               @Value("${cafefinder.cache.max-entries:2000}") int maxEntries,
+                               @Value("${cafefinder.cache.max-age-seconds:0}") long maxAgeSeconds) {
+        this.objectMapper = objectMapper;
+        this.maxEntries = maxEntries;
+        this.cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic().mustRevalidate();
+
+        Gauge.builder("cafefinder.cache.size", this, PublicResponseCache::size)
+                .tag("cache", "public-responses")
+                .register(meterRegistry);
+        this.hits = cacheCounter(meterRegistry, "hit");
+        this.misses = cacheCounter(meterRegistry, "miss");
+        this.notModified = cacheCounter(meterRegistry, "not_modified");
+    }
+
+    /**
+     * Builds a cache key from the endpoint name and its bound parameters. Each value is
+     * length-prefixed, so a '|' inside one can't make two parameter lists collide. Values
+     * go in as given: pass the same normalized values the loader queries with, and wrap
+     * parameters matched case-insensitively in {@link #folded(String)} so their spellings
+     * share an entry.
+     */
+    public static String key(String endpoint, Object... params) {
+        StringBuilder key = new StringBuilder(endpoint);
+        for (Object param : params) {
+            key.append('|');
+            if (param == null) {
+                key.append('-');
+            } else {
+                String value = param.toString();
+                key.append(value.length()).append(':').append(value);
+            }
+        }
+        return key.toString();
+    }
+
+    /** Lowercases a parameter the endpoint matches case-insensitively; null stays null. */
+    public static String folded(String param) {
+        return param != null ? param.toLowerCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * Serves a cached response for the key, loading and serializing it on a miss.
+     * A null result from the loader becomes a 404 and is not cached.
+     */
+    public ResponseEntity<byte[]> respond(String key, HttpServletRequest request, Supplier<Object> loader) {
+        long version = catalogVersion.get();
+        Entry entry = get(key);
+        if (entry != null && entry.version == version) {
+            hits.increment();
+        } else {
+            misses.increment();
+            Object value = loader.get();
+            if (value == null) {
+                return ResponseEntity.notFound().build();
+            }
+            entry = new Entry(version, serialize(value));
+            put(key, entry);
+        }
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), entry.etag)) {
+            notModified.increment();
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(entry.etag)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(entry.etag)
+                .cacheControl(cacheControl)
+                .body(entry.body);
+    }
+
+    @EventListener
+    public void onCafeChanged(CafeChangedEvent event) {
+        catalogVersion.incrementAndGet();
+    }
+
+    private Entry get(String key) {
+        lock.lock();
+        try {
+            return entries.get(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void put(String key, Entry entry) {
+        lock.lock();
+        try {
+            // Keep whichever entry was built from the newer catalog version
+            Entry existing = entries.get(key);
+            if (existing == null || existing.version <= entry.version) {
+                entries.put(key, entry);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize response", e);
+        }
+    }
+
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals(etag) || tag.equals("*")) return true;
+        }
+        return false;
+    }
+
+    private static Counter cacheCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("cafefinder.cache.requests")
+                .tag("cache", "public-responses")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static final class Entry {
+        private final long version;
+        private final byte[] body;
+        private final String etag;
+
+        Entry(long version, byte[] body) {
+            this.version = version;
+            this.body = body;
+            this.etag = strongEtag(body);
+        }
+    }
+
+    static String strongEtag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
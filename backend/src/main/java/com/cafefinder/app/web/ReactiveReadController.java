@@ -0,0 +1,87 @@
+package com.cafefinder.app.web;
+
+import com.cafefinder.app.model.BusyEntry;
+import com.cafefinder.app.model.Cafe;
+import com.cafefinder.app.model.Review;
+import com.cafefinder.app.repo.reactive.ReactiveBusyRepo;
+import com.cafefinder.app.repo.reactive.ReactiveCafeRepo;
+import com.cafefinder.app.repo.reactive.ReactiveReviewRepo;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Non-blocking variants of the public read endpoints, on the reactive Mongo driver.
+ * Spring MVC subscribes to the returned Flux/Mono asynchronously, so a request
+ * waiting on Mongo doesn't hold a Tomcat thread. Responses match the blocking
+ * endpoints they mirror, without the in-memory indexes and response cache.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/rx/public")
+public class ReactiveReadController {
+    private final ReactiveCafeRepo cafes;
+    private final ReactiveReviewRepo reviews;
+    private final ReactiveBusyRepo busy;
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public ReactiveReadController(ReactiveCafeRepo cafes, ReactiveReviewRepo reviews, ReactiveBusyRepo busy,
+                                  ReactiveMongoTemplate mongoTemplate) {
+        this.cafes = cafes;
+        this.reviews = reviews;
+        this.busy = busy;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // Mirrors GET /api/cafes/public/{id}
+    @GetMapping("/cafes/{id}")
+    public Mono<ResponseEntity<Cafe>> getCafe(@PathVariable String id) {
+        return cafes.findById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    // Mirrors GET /api/cafes/public/popular, straight from the popularityScore index
+    @GetMapping("/cafes/popular")
+    public Flux<Cafe> getPopular(@RequestParam(value="limit", defaultValue="10") int limit,
+                                 @RequestParam(value="city", required=false) String city) {
+        Query query = new Query();
+        if (city != null && !city.isBlank()) {
+            query.addCriteria(Criteria.where("city").regex("^" + Pattern.quote(city.trim()) + "$", "i"));
+        }
+        query.with(Sort.by(Sort.Direction.DESC, "popularityScore", "reviewsCount"));
+        query.limit(Math.min(limit, 200));
+        query.fields().exclude("menuItems");
+        return mongoTemplate.find(query, Cafe.class);
+    }
+
+    // Mirrors GET /api/reviews/public/cafe/{cafeId}
+    @GetMapping("/reviews/cafe/{cafeId}")
+    public Flux<Review> getReviewsByCafe(@PathVariable String cafeId) {
+        return reviews.findByCafeIdAndStatusOrderByCreatedAtDesc(cafeId, "APPROVED");
+    }
+
+    // Mirrors GET /api/reviews/public/recent
+    @GetMapping("/reviews/recent")
+    public Flux<Review> getRecentReviews() {
+        return reviews.findTop10ByStatusOrderByCreatedAtDesc("APPROVED");
+    }
+
+    // Mirrors GET /api/busy/public/cafe/{cafeId}
+    @GetMapping("/busy/cafe/{cafeId}")
+    public Flux<BusyEntry> getBusyHistory(@PathVariable String cafeId,
+                                          @RequestParam(defaultValue = "24") int hours) {
+        Instant since = Instant.now().minus(hours, ChronoUnit.HOURS);
+        return busy.findByCafeIdAndTimestampAfterOrderByTimestampDesc(cafeId, since);
+    }
+}
@@ -2,8 +2,10 @@ package com.cafefinder.app.web;
 
 import com.cafefinder.app.model.Review;
 import com.cafefinder.app.repo.ReviewRepo;
-import com.cafefinder.app.service.CafeService;
+import com.cafefinder.app.service.ReviewService;
+import com.cafefinder.app.service.ReviewSummaryService;
 import com.cafefinder.app.service.UserDetailsImpl;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -18,7 +20,13 @@ public class ReviewController {
     private final ReviewRepo repo;
     
     @Autowired
-    private CafeService cafeService;
+    private ReviewService reviewService;
+
+    @Autowired
+    private ReviewSummaryService reviewSummaries;
+
+    @Autowired
+    private PublicResponseCache responseCache;
 
     public ReviewController(ReviewRepo repo){
         this.repo = repo;
@@ -29,6 +37,13 @@ public class ReviewController {
         return repo.findByCafeIdAndStatusOrderByCreatedAtDesc(cafeId, "APPROVED");
     }
 
+    // Star histograms, averages per dimension, amenity confirmations and mean wait, without reading the reviews
+    @GetMapping("/public/cafe/{cafeId}/summary")
+    public ResponseEntity<byte[]> getReviewSummary(@PathVariable("cafeId") String cafeId, HttpServletRequest request) {
+        return responseCache.respond(PublicResponseCache.key("review-summary", cafeId), request,
+                () -> reviewSummaries.get(cafeId));
+    }
+
     @GetMapping("/public/user/{userId}")
     public List<Review> getReviewsByUser(@PathVariable("userId") String userId) {
         return repo.findByUserIdAndStatusOrderByCreatedAtDesc(userId, "APPROVED");
@@ -52,11 +67,9 @@ public class ReviewController {
         review.setHelpfulVotes(0);
         review.setStatus("PENDING"); // New reviews need admin approval
         
+        // Pending reviews don't count towards ratings until an admin approves them
         Review savedReview = repo.save(review);
         
-        // Update cafe ratings
-        cafeService.updateCafeRatings(review.getCafeId());
-        
         return ResponseEntity.ok(savedReview);
     }
 
@@ -65,18 +78,9 @@ public class ReviewController {
     public ResponseEntity<Review> updateReview(@PathVariable("id") String id, @RequestBody Review review, Authentication auth) {
         UserDetailsImpl userDetails = (UserDetailsImpl) auth.getPrincipal();
         
-        return repo.findById(id)
-                .filter(existingReview -> existingReview.getUserId().equals(userDetails.getId()))
-                .map(existingReview -> {
-                    review.setId(id);
-                    review.setUserId(userDetails.getId());
-                    review.setUsername(userDetails.getUsername());
-                    review.setCreatedAt(existingReview.getCreatedAt());
-                    review.setUpdatedAt(Instant.now());
-                    Review updated = repo.save(review);
-                    cafeService.updateCafeRatings(review.getCafeId());
-                    return ResponseEntity.ok(updated);
-                })
+        // Moderation state belongs to admins, not the author, so only the review's content is written
+        return reviewService.update(id, userDetails.getId(), userDetails.getUsername(), review)
+                .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -92,10 +96,9 @@ public class ReviewController {
                             .anyMatch(authority -> authority.getAuthority().equals("ROLE_ADMIN"));
                     
                     if (isOwner || isAdmin) {
-                        String cafeId = review.getCafeId();
-                        repo.delete(review);
-                        cafeService.updateCafeRatings(cafeId);
-                        return ResponseEntity.ok().build();
+                        return reviewService.delete(id, isAdmin ? null : userDetails.getId())
+                                .<ResponseEntity<?>>map(removed -> ResponseEntity.ok().build())
+                                .orElse(ResponseEntity.notFound().build());
                     } else {
                         return ResponseEntity.status(403).build();
                     }
@@ -106,22 +109,16 @@ public class ReviewController {
     @PostMapping("/{id}/like")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<Review> likeReview(@PathVariable("id") String id) {
-        return repo.findById(id)
-                .map(review -> {
-                    review.setLikes(review.getLikes() + 1);
-                    return ResponseEntity.ok(repo.save(review));
-                })
+        return reviewService.increment(id, "likes")
+                .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping("/{id}/helpful")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<Review> markHelpful(@PathVariable("id") String id) {
-        return repo.findById(id)
-                .map(review -> {
-                    review.setHelpfulVotes(review.getHelpfulVotes() + 1);
-                    return ResponseEntity.ok(repo.save(review));
-                })
+        return reviewService.increment(id, "helpfulVotes")
+                .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -2,21 +2,26 @@ package com.cafefinder.app.web;
 
 import com.cafefinder.app.model.Review;
 import com.cafefinder.app.repo.ReviewRepo;
+import com.cafefinder.app.service.ReviewStatsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/test-admin")
 public class TestAdminController {
+    private static final Logger log = LoggerFactory.getLogger(TestAdminController.class);
 
     private final ReviewRepo reviewRepo;
+    private final ReviewStatsService reviewStatsService;
 
-    public TestAdminController(ReviewRepo reviewRepo) {
+    public TestAdminController(ReviewRepo reviewRepo, ReviewStatsService reviewStatsService) {
         this.reviewRepo = reviewRepo;
+        this.reviewStatsService = reviewStatsService;
     }
 
     // Simple test endpoint
@@ -40,25 +45,9 @@ public class TestAdminController {
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getAdminStats() {
         try {
-            long totalReviews = reviewRepo.count();
-            
-            // For now, use simple counts since new methods might not work yet
-            List<Review> allReviews = reviewRepo.findAll();
-            long pendingReviews = allReviews.stream().filter(r -> "PENDING".equals(r.getStatus())).count();
-            long approvedReviews = allReviews.stream().filter(r -> "APPROVED".equals(r.getStatus())).count();
-            long rejectedReviews = allReviews.stream().filter(r -> "REJECTED".equals(r.getStatus())).count();
-
-            Map<String, Object> stats = Map.of(
-                "totalReviews", totalReviews,
-                "pendingReviews", pendingReviews,
-                "approvedReviews", approvedReviews,
-                "rejectedReviews", rejectedReviews
-            );
-
-            return ResponseEntity.ok(stats);
+            return ResponseEntity.ok(reviewStatsService.getStats());
         } catch (Exception e) {
-            System.err.println("Error in getAdminStats: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error in getAdminStats", e);
             return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
         }
     }
@@ -67,41 +56,18 @@ public class TestAdminController {
     @GetMapping("/reviews")
     public ResponseEntity<?> getAllReviews(@RequestParam(value = "status", defaultValue = "ALL") String status) {
         try {
-            System.out.println("=== Starting getAllReviews with status: " + status);
-            
-            // First test if repository is working
-            System.out.println("Testing repository connection...");
-            long count = reviewRepo.count();
-            System.out.println("Total review count in database: " + count);
-            
-            if (count == 0) {
-                System.out.println("No reviews found in database");
-                return ResponseEntity.ok(List.of());
-            }
-            
             List<Review> reviews;
             if ("ALL".equals(status)) {
-                System.out.println("Fetching all reviews...");
                 reviews = reviewRepo.findAll();
             } else {
-                System.out.println("Fetching reviews with status: " + status);
                 reviews = reviewRepo.findByStatus(status);
             }
             
-            System.out.println("Found " + reviews.size() + " reviews with status: " + status);
-            
-            if (reviews.isEmpty()) {
-                System.out.println("No reviews found for status: " + status);
-                return ResponseEntity.ok(List.of());
-            }
-            
-            // Return the actual reviews
-            System.out.println("Returning " + reviews.size() + " reviews");
+            log.debug("Found {} reviews with status: {}", reviews.size(), status);
             return ResponseEntity.ok(reviews);
             
         } catch (Exception e) {
-            System.err.println("ERROR in getAllReviews: " + e.getClass().getName() + ": " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error in getAllReviews for status {}", status, e);
             return ResponseEntity.status(500).body(Map.of(
                 "error", e.getMessage(),
                 "errorType", e.getClass().getName()
@@ -0,0 +1,28 @@
+package com.cafefinder.app.web;
+
+import com.cafefinder.app.service.UserLoader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/users")
+public class UserController {
+    private final UserLoader userLoader;
+    private final int maxBatchIds;
+
+    public UserController(UserLoader userLoader, @Value("${cafefinder.batch.max-ids:200}") int maxBatchIds) {
+        this.userLoader = userLoader;
+        this.maxBatchIds = maxBatchIds;
+    }
+
+    // Public profiles for many user ids at once; results follow the request order, null where missing
+    @PostMapping("/public/batch")
+    public ResponseEntity<?> getBatch(@RequestBody List<String> ids) {
+        if (ids.size() > maxBatchIds) {
+            return ResponseEntity.badRequest().body("At most " + maxBatchIds + " ids per request");
+        }
+        return ResponseEntity.ok(userLoader.loadMany(ids));
+    }
+}
@@ -0,0 +1,107 @@
+package com.cafefinder.app.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class GeoDistanceTest {
+    private static final double[] RADII_KM = {0.5, 5, 25, 100, 200, 500};
+    // Query points: mid-latitudes, equator, near both poles and either side of the antimeridian
+    private static final double[][] CENTERS = {
+            {40.7128, -74.0060}, {0, 0}, {-33.8688, 151.2093}, {64.1466, -21.9426},
+            {85, 10}, {-85, -120}, {89.5, 45}, {10, 179.9}, {-20, -179.95}, {60, 179.5}};
+    private static final int SAMPLES = 4000;
+
+    @Test
+    void haversineMatchesKnownDistances() {
+        // One degree of latitude on the 6371 km sphere
+        assertThat(GeoDistance.haversine(0, 0, 1, 0)).isCloseTo(111.195, within(0.001));
+        assertThat(GeoDistance.haversine(10, 179.5, 10, -179.5))
+                .isCloseTo(GeoDistance.haversine(10, -0.5, 10, 0.5), within(1e-9));
+        assertThat(GeoDistance.haversine(90, 0, 90, 120)).isCloseTo(0, within(1e-9));
+    }
+
+    @Test
+    void exactDistanceMatchesHaversine() {
+        Random random = new Random(7);
+        for (double[] center : CENTERS) {
+            GeoDistance.RadiusFilter filter = GeoDistance.within(center[0], center[1], 50);
+            for (int i = 0; i < SAMPLES; i++) {
+                double lat = -90 + 180 * random.nextDouble();
+                double lng = -180 + 360 * random.nextDouble();
+                assertThat(filter.exactDistance(lat, lng))
+                        .isCloseTo(GeoDistance.haversine(center[0], center[1], lat, lng), within(1e-6));
+            }
+        }
+    }
+
+    @Test
+    void radiusFilterAgreesWithHaversineAndStaysWithinOnePercent() {
+        Random random = new Random(42);
+        for (double[] center : CENTERS) {
+            for (double radius : RADII_KM) {
+                GeoDistance.RadiusFilter filter = GeoDistance.within(center[0], center[1], radius);
+                for (int i = 0; i < SAMPLES; i++) {
+                    double[] point = near(random, center, radius * 1.5);
+                    double exact = GeoDistance.haversine(center[0], center[1], point[0], point[1]);
+                    double distance = filter.distanceIfWithin(point[0], point[1]);
+
+                    if (exact <= radius) {
+                        assertThat(distance).as("inside %s km of %s,%s: %s,%s",
+                                radius, center[0], center[1], point[0], point[1]).isNotNegative();
+                        assertThat(distance).isCloseTo(exact, within(radius * 0.01));
+                    } else {
+                        assertThat(distance).as("outside %s km of %s,%s: %s,%s",
+                                radius, center[0], center[1], point[0], point[1]).isEqualTo(-1);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void boundingBoxContainsEveryPointInsideTheRadius() {
+        Random random = new Random(99);
+        for (double[] center : CENTERS) {
+            for (double radius : RADII_KM) {
+                GeoDistance.RadiusFilter filter = GeoDistance.within(center[0], center[1], radius);
+                for (int i = 0; i < SAMPLES; i++) {
+                    double[] point = near(random, center, radius);
+                    if (GeoDistance.haversine(center[0], center[1], point[0], point[1]) > radius) continue;
+
+                    assertThat(point[0]).isBetween(filter.getMinLat(), filter.getMaxLat());
+                    if (filter.boundsLongitude()) {
+                        assertThat(point[1]).isBetween(filter.getMinLng(), filter.getMaxLng());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void longitudeIsUnboundedNearThePolesAndAcrossTheAntimeridian() {
+        assertThat(GeoDistance.within(40, -74, 50).boundsLongitude()).isTrue();
+        assertThat(GeoDistance.within(89.9, 0, 50).boundsLongitude()).isFalse();
+        assertThat(GeoDistance.within(-89.9, 0, 50).boundsLongitude()).isFalse();
+        assertThat(GeoDistance.within(10, 179.9, 50).boundsLongitude()).isFalse();
+        assertThat(GeoDistance.within(10, -179.9, 50).boundsLongitude()).isFalse();
+    }
+
+    // Random point within roughly maxKm of the center, with longitude wrapped to [-180, 180]
+    private static double[] near(Random random, double[] center, double maxKm) {
+        double bearing = 2 * Math.PI * random.nextDouble();
+        double angular = maxKm * random.nextDouble() / GeoDistance.EARTH_RADIUS_KM;
+        double lat1 = Math.toRadians(center[0]);
+        double lng1 = Math.toRadians(center[1]);
+        double lat2 = Math.asin(Math.sin(lat1) * Math.cos(angular)
+                + Math.cos(lat1) * Math.sin(angular) * Math.cos(bearing));
+        double lng2 = lng1 + Math.atan2(Math.sin(bearing) * Math.sin(angular) * Math.cos(lat1),
+                Math.cos(angular) - Math.sin(lat1) * Math.sin(lat2));
+        double lng = Math.toDegrees(lng2);
+        if (lng > 180) lng -= 360; else if (lng < -180) lng += 360;
+        return new double[] {Math.toDegrees(lat2), lng};
+    }
+}
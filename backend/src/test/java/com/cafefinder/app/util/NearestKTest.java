@@ -0,0 +1,76 @@
+package com.cafefinder.app.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NearestKTest {
+
+    @Test
+    void keepsExactlyTheKNearestInOrder() {
+        Random random = new Random(11);
+        for (int k : new int[] {1, 5, 50, 200}) {
+            double[] distances = random.doubles(1000, 0, 100).toArray();
+            NearestK nearest = new NearestK(k);
+            for (int i = 0; i < distances.length; i++) {
+                nearest.offer(i, distances[i]);
+            }
+            nearest.sort();
+
+            Integer[] expected = IntStream.range(0, distances.length).boxed()
+                    .sorted(Comparator.comparingDouble(i -> distances[i]))
+                    .limit(k)
+                    .toArray(Integer[]::new);
+            assertThat(nearest.size()).isEqualTo(k);
+            for (int i = 0; i < k; i++) {
+                assertThat(nearest.index(i)).isEqualTo(expected[i]);
+                assertThat(nearest.distance(i)).isEqualTo(distances[expected[i]]);
+            }
+        }
+    }
+
+    @Test
+    void keepsEverythingWhenFewerThanKAreOffered() {
+        double[] distances = {3.5, 0.25, 9, 1};
+        NearestK nearest = new NearestK(10);
+        for (int i = 0; i < distances.length; i++) {
+            nearest.offer(i, distances[i]);
+        }
+        nearest.sort();
+
+        assertThat(nearest.size()).isEqualTo(4);
+        int[] order = new int[4];
+        double[] sorted = new double[4];
+        for (int i = 0; i < 4; i++) {
+            order[i] = nearest.index(i);
+            sorted[i] = nearest.distance(i);
+        }
+        assertThat(order).containsExactly(1, 3, 0, 2);
+        assertThat(sorted).isSorted();
+        assertThat(Arrays.stream(sorted).sum()).isEqualTo(Arrays.stream(distances).sum());
+    }
+
+    @Test
+    void zeroCapacityKeepsNothing() {
+        NearestK nearest = new NearestK(0);
+        nearest.offer(0, 1.0);
+        nearest.sort();
+        assertThat(nearest.size()).isZero();
+    }
+
+    @Test
+    void rejectsUseOutOfOrder() {
+        NearestK nearest = new NearestK(3);
+        nearest.offer(0, 1.0);
+        assertThatThrownBy(() -> nearest.index(0)).isInstanceOf(IllegalStateException.class);
+        nearest.sort();
+        assertThatThrownBy(() -> nearest.offer(1, 0.5)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new NearestK(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,118 @@
+package com.cafefinder.app.util;
+
+import com.cafefinder.app.model.OpenInterval;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.cafefinder.app.util.OpeningHours.MINUTES_PER_DAY;
+import static com.cafefinder.app.util.OpeningHours.MINUTES_PER_WEEK;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OpeningHoursTest {
+    private static final int MONDAY = MINUTES_PER_DAY;
+    private static final int FRIDAY = 5 * MINUTES_PER_DAY;
+    private static final int SATURDAY = 6 * MINUTES_PER_DAY;
+
+    @Test
+    void readsTwentyFourHourAndAmPmTimes() {
+        assertThat(compile(1, "7:00-19:30")).containsExactly(range(MONDAY + 7 * 60, MONDAY + 19 * 60 + 30));
+        assertThat(compile(1, "7am - 3:30 pm")).containsExactly(range(MONDAY + 7 * 60, MONDAY + 15 * 60 + 30));
+        assertThat(compile(1, "7 a.m. to 3 p.m.")).containsExactly(range(MONDAY + 7 * 60, MONDAY + 15 * 60));
+    }
+
+    @Test
+    void readsTwelveAmAsMidnightAndTwelvePmAsNoon() {
+        assertThat(compile(1, "12am-6am")).containsExactly(range(MONDAY, MONDAY + 6 * 60));
+        assertThat(compile(1, "12pm-12am")).containsExactly(range(MONDAY + 12 * 60, MONDAY + MINUTES_PER_DAY));
+        assertThat(compile(1, "noon-5pm")).containsExactly(range(MONDAY + 12 * 60, MONDAY + 17 * 60));
+    }
+
+    @Test
+    void rangesPastMidnightRunIntoTheNextDay() {
+        assertThat(compile(5, "18:00-02:00")).containsExactly(range(FRIDAY + 18 * 60, SATURDAY + 2 * 60));
+    }
+
+    @Test
+    void saturdayNightWrapsToSundayMorning() {
+        assertThat(compile(6, "8pm-2am"))
+                .containsExactly(range(0, 2 * 60), range(SATURDAY + 20 * 60, MINUTES_PER_WEEK));
+    }
+
+    @Test
+    void midnightWorksAsEitherEnd() {
+        assertThat(compile(5, "10pm-midnight")).containsExactly(range(FRIDAY + 22 * 60, SATURDAY));
+        assertThat(compile(5, "midnight-4am")).containsExactly(range(FRIDAY, FRIDAY + 4 * 60));
+        assertThat(compile(5, "24:00-4:00")).containsExactly(range(FRIDAY, FRIDAY + 4 * 60));
+    }
+
+    @Test
+    void readsTwentyFourHoursAndClosed() {
+        Map<Integer, String> hours = new HashMap<>();
+        hours.put(0, "Open 24 hours");
+        hours.put(1, "Closed");
+        hours.put(2, "24/7");
+        assertThat(describe(OpeningHours.compile(hours)))
+                .containsExactly(range(0, MINUTES_PER_DAY), range(2 * MINUTES_PER_DAY, 3 * MINUTES_PER_DAY));
+    }
+
+    // Escaped so the test doesn't depend on the source encoding either
+    @Test
+    void acceptsEnAndEmDashes() {
+        assertThat(compile(1, "9:00\u201317:00")).containsExactly(range(MONDAY + 9 * 60, MONDAY + 17 * 60));
+        assertThat(compile(1, "9am \u2014 5pm")).containsExactly(range(MONDAY + 9 * 60, MONDAY + 17 * 60));
+    }
+
+    @Test
+    void mergesSeveralRangesPerDay() {
+        assertThat(compile(1, "8-12, 11-14; 17:00-20:00"))
+                .containsExactly(range(MONDAY + 8 * 60, MONDAY + 14 * 60), range(MONDAY + 17 * 60, MONDAY + 20 * 60));
+    }
+
+    @Test
+    void skipsWhatItCannotRead() {
+        assertThat(compile(1, "whenever")).isEmpty();
+        assertThat(compile(1, "25:00-26:00")).isEmpty();
+        assertThat(compile(1, "9:75-10:00")).isEmpty();
+        assertThat(compile(1, "13pm-2pm")).isEmpty();
+        assertThat(compile(1, "ask us, 8-12")).containsExactly(range(MONDAY + 8 * 60, MONDAY + 12 * 60));
+
+        Map<Integer, String> hours = new HashMap<>();
+        hours.put(7, "8-12");
+        hours.put(-1, "8-12");
+        hours.put(3, null);
+        assertThat(OpeningHours.compile(hours)).isEmpty();
+        assertThat(OpeningHours.compile(null)).isNull();
+    }
+
+    @Test
+    void isOpenTreatsTheEndAsExclusive() {
+        Map<Integer, String> hours = new HashMap<>();
+        hours.put(1, "9-17");
+        List<OpenInterval> intervals = OpeningHours.compile(hours);
+        assertThat(OpeningHours.isOpen(intervals, MONDAY + 9 * 60 - 1)).isFalse();
+        assertThat(OpeningHours.isOpen(intervals, MONDAY + 9 * 60)).isTrue();
+        assertThat(OpeningHours.isOpen(intervals, MONDAY + 17 * 60 - 1)).isTrue();
+        assertThat(OpeningHours.isOpen(intervals, MONDAY + 17 * 60)).isFalse();
+        assertThat(OpeningHours.isOpen(null, MONDAY)).isFalse();
+    }
+
+    private static List<String> compile(int day, String text) {
+        Map<Integer, String> hours = new HashMap<>();
+        hours.put(day, text);
+        return describe(OpeningHours.compile(hours));
+    }
+
+    private static List<String> describe(List<OpenInterval> intervals) {
+        List<String> ranges = new ArrayList<>();
+        for (OpenInterval interval : intervals) ranges.add(range(interval.getStart(), interval.getEnd()));
+        return ranges;
+    }
+
+    private static String range(int start, int end) {
+        return start + "-" + end;
+    }
+}
@@ -22,6 +22,8 @@ const CafeDetails = () => {
   const { user } = useAuth()
   const [cafe, setCafe] = useState(null)
   const [reviews, setReviews] = useState([])
+  const [moreReviews, setMoreReviews] = useState(false)
+  const [loadingReviews, setLoadingReviews] = useState(false)
   const [loading, setLoading] = useState(true)
   const [activeTab, setActiveTab] = useState('overview')
   const [showClaimModal, setShowClaimModal] = useState(false)
@@ -37,9 +39,9 @@ const CafeDetails = () => {
   useEffect(() => {
     const fetchCafeData = async () => {
       try {
-        // Get all cafes and find the one we want (temporary workaround for 500 errors)
-        const cafesRes = await axios.get('/api/cafes/public/search')
-        const foundCafe = cafesRes.data.find(cafe => cafe.id === id)
+        // Cafe (with menu) and its newest reviews in one request; the backend loads them concurrently
+        const detailRes = await axios.get(`/api/cafes/public/${id}/detail`)
+        const foundCafe = detailRes.data && detailRes.data.cafe
         
         if (!foundCafe) {
           throw new Error('Cafe not found')
@@ -47,15 +49,8 @@ const CafeDetails = () => {
 
         // Set cafe data
         setCafe(foundCafe)
-        
-        // Try to get reviews, but don't fail if they error
-        try {
-          const reviewsRes = await axios.get(`/api/reviews/public/cafe/${id}`)
-          setReviews(reviewsRes.data || [])
-        } catch (reviewError) {
-          console.log('Reviews not available:', reviewError.message)
-          setReviews([])
-        }
+        setReviews(detailRes.data.reviews || [])
+        setMoreReviews(!!detailRes.data.moreReviews)
         
         // Check if cafe can be claimed
         try {
@@ -78,6 +73,20 @@ const CafeDetails = () => {
     }
   }, [id])
 
+  // The detail response carries only the newest reviews; fetch the full list on demand
+  const loadAllReviews = async () => {
+    setLoadingReviews(true)
+    try {
+      const reviewsRes = await axios.get(`/api/reviews/public/cafe/${id}`)
+      setReviews(reviewsRes.data || [])
+      setMoreReviews(false)
+    } catch (error) {
+      console.log('Could not load more reviews:', error.message)
+    } finally {
+      setLoadingReviews(false)
+    }
+  }
+
   const handleReviewSubmitted = (newReview) => {
     setReviews(prev => [newReview, ...prev])
     // Refresh only cafe data for updated ratings without triggering errors
@@ -86,8 +95,8 @@ const CafeDetails = () => {
 
   const refreshCafeOnly = async () => {
     try {
-      const cafesRes = await axios.get('/api/cafes/public/search')
-      const foundCafe = cafesRes.data.find(cafe => cafe.id === id)
+      const cafeRes = await axios.get(`/api/cafes/public/${id}`)
+      const foundCafe = cafeRes.data
       if (foundCafe) {
         setCafe(foundCafe)
       }
@@ -311,6 +320,17 @@ const CafeDetails = () => {
                 <ReviewForm cafeId={id} onReviewSubmitted={handleReviewSubmitted} />
               )}
               <ReviewList reviews={reviews} />
+              {moreReviews && (
+                <div className="text-center">
+                  <button
+                    onClick={loadAllReviews}
+                    disabled={loadingReviews}
+                    className="btn-secondary text-sm px-4 py-2"
+                  >
+                    {loadingReviews ? 'Loading...' : `Show all ${cafe.reviewsCount} reviews`}
+                  </button>
+                </div>
+              )}
             </div>
           )}
 